@@ -0,0 +1,449 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive encodings used by generated {@link BinaryCodec}s and adapters of {@link ByteBuffer}
+ * to {@link DataOutput} and {@link DataInput}.
+ */
+public final class Binaries {
+  private Binaries() {}
+
+  /**
+   * Maximum length of string in bytes or number of elements of collection, map or array which
+   * could be read, configured using {@code org.immutables.binary.maxLength} system property.
+   * Limits memory allocated when reading corrupted or malicious input.
+   */
+  public static final int MAX_LENGTH = Integer.getInteger("org.immutables.binary.maxLength", 1 << 26);
+
+  /**
+   * Writes non-negative integer, such as size or ordinal, using 1 to 5 bytes, 7 bits per byte.
+   * @param output data output
+   * @param value the value
+   * @throws IOException if write failed
+   */
+  public static void writeVarInt(DataOutput output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  /**
+   * Reads integer written by {@link #writeVarInt(DataOutput, int)}.
+   * @param input data input
+   * @return the value
+   * @throws IOException if read failed
+   */
+  public static int readVarInt(DataInput input) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = input.readByte();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  /**
+   * Reads length of string in bytes or number of elements written by
+   * {@link #writeVarInt(DataOutput, int)}.
+   * @param input data input
+   * @return the length
+   * @throws IOException if read failed, length is negative or exceeds {@link #MAX_LENGTH}
+   */
+  public static int readLength(DataInput input) throws IOException {
+    int length = readVarInt(input);
+    if (length < 0 || length > MAX_LENGTH) {
+      throw new IOException("Invalid length " + length + ", should be in range 0.." + MAX_LENGTH);
+    }
+    return length;
+  }
+
+  /**
+   * Reads enum ordinal written by {@link #writeVarInt(DataOutput, int)}.
+   * @param input data input
+   * @param count number of enum constants
+   * @return the ordinal
+   * @throws IOException if read failed or ordinal is not in range {@code 0..count-1}
+   */
+  public static int readOrdinal(DataInput input, int count) throws IOException {
+    int ordinal = readVarInt(input);
+    if (ordinal < 0 || ordinal >= count) {
+      throw new IOException("Invalid ordinal " + ordinal + ", should be in range 0.." + (count - 1));
+    }
+    return ordinal;
+  }
+
+  /**
+   * Writes signed integer using zig-zag encoding, so that small negative values also take few bytes.
+   * @param output data output
+   * @param value the value
+   * @throws IOException if write failed
+   */
+  public static void writeSignedVarInt(DataOutput output, int value) throws IOException {
+    writeVarInt(output, (value << 1) ^ (value >> 31));
+  }
+
+  /**
+   * Reads integer written by {@link #writeSignedVarInt(DataOutput, int)}.
+   * @param input data input
+   * @return the value
+   * @throws IOException if read failed
+   */
+  public static int readSignedVarInt(DataInput input) throws IOException {
+    int value = readVarInt(input);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Writes non-negative long integer using 1 to 10 bytes, 7 bits per byte.
+   * @param output data output
+   * @param value the value
+   * @throws IOException if write failed
+   */
+  public static void writeVarLong(DataOutput output, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      output.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte((int) value);
+  }
+
+  /**
+   * Reads long integer written by {@link #writeVarLong(DataOutput, long)}.
+   * @param input data input
+   * @return the value
+   * @throws IOException if read failed
+   */
+  public static long readVarLong(DataInput input) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = input.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  /**
+   * Writes signed long integer using zig-zag encoding.
+   * @param output data output
+   * @param value the value
+   * @throws IOException if write failed
+   */
+  public static void writeSignedVarLong(DataOutput output, long value) throws IOException {
+    writeVarLong(output, (value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Reads long integer written by {@link #writeSignedVarLong(DataOutput, long)}.
+   * @param input data input
+   * @return the value
+   * @throws IOException if read failed
+   */
+  public static long readSignedVarLong(DataInput input) throws IOException {
+    long value = readVarLong(input);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Writes string as UTF-8 bytes prefixed with the number of bytes. Unlike
+   * {@link DataOutput#writeUTF(String)}, strings are not limited in length.
+   * @param output data output
+   * @param value the string
+   * @throws IOException if write failed
+   */
+  public static void writeString(DataOutput output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(output, bytes.length);
+    output.write(bytes);
+  }
+
+  /**
+   * Reads string written by {@link #writeString(DataOutput, String)}.
+   * @param input data input
+   * @return the string
+   * @throws IOException if read failed or length is invalid
+   */
+  public static String readString(DataInput input) throws IOException {
+    int length = readLength(input);
+    if (input instanceof ByteBufferInput) {
+      ((ByteBufferInput) input).require(length);
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encodes value to bytes.
+   * @param <T> type of value
+   * @param codec binary codec
+   * @param value the value
+   * @return encoded bytes
+   */
+  public static <T> byte[] encode(BinaryCodec<T> codec, T value) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      codec.write(value, new DataOutputStream(bytes));
+    } catch (IOException ex) {
+      throw new AssertionError(ex);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes value from bytes.
+   * @param <T> type of value
+   * @param codec binary codec
+   * @param bytes encoded bytes
+   * @return the value
+   * @throws IOException if bytes could not be decoded
+   */
+  public static <T> T decode(BinaryCodec<T> codec, byte[] bytes) throws IOException {
+    return codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  /**
+   * Data output which writes to the buffer starting from its current position. Writes beyond
+   * the limit of the buffer throw {@link java.nio.BufferOverflowException}.
+   * @param buffer byte buffer
+   * @return data output
+   */
+  public static DataOutput output(ByteBuffer buffer) {
+    return new ByteBufferOutput(buffer);
+  }
+
+  /**
+   * Data input which reads from the buffer starting from its current position. Reads beyond the
+   * limit of the buffer throw {@link EOFException}.
+   * @param buffer byte buffer
+   * @return data input
+   */
+  public static DataInput input(ByteBuffer buffer) {
+    return new ByteBufferInput(buffer);
+  }
+
+  private static final class ByteBufferOutput implements DataOutput {
+    private final ByteBuffer buffer;
+
+    ByteBufferOutput(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+      buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+      buffer.put(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      buffer.put(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+      buffer.put((byte) (v ? 1 : 0));
+    }
+
+    @Override
+    public void writeByte(int v) {
+      buffer.put((byte) v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+      buffer.putShort((short) v);
+    }
+
+    @Override
+    public void writeChar(int v) {
+      buffer.putChar((char) v);
+    }
+
+    @Override
+    public void writeInt(int v) {
+      buffer.putInt(v);
+    }
+
+    @Override
+    public void writeLong(long v) {
+      buffer.putLong(v);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+      buffer.putFloat(v);
+    }
+
+    @Override
+    public void writeDouble(double v) {
+      buffer.putDouble(v);
+    }
+
+    @Override
+    public void writeBytes(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        buffer.put((byte) s.charAt(i));
+      }
+    }
+
+    @Override
+    public void writeChars(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        buffer.putChar(s.charAt(i));
+      }
+    }
+
+    @Override
+    public void writeUTF(String s) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(s.length() + 2);
+      new DataOutputStream(bytes).writeUTF(s);
+      buffer.put(bytes.toByteArray());
+    }
+  }
+
+  private static final class ByteBufferInput implements DataInput {
+    private final ByteBuffer buffer;
+
+    ByteBufferInput(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    private ByteBuffer require(int length) throws EOFException {
+      if (buffer.remaining() < length) {
+        throw new EOFException();
+      }
+      return buffer;
+    }
+
+    @Override
+    public void readFully(byte[] b) throws IOException {
+      require(b.length).get(b);
+    }
+
+    @Override
+    public void readFully(byte[] b, int off, int len) throws IOException {
+      require(len).get(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(int n) {
+      int skipped = Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+      return require(1).get() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return require(1).get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+      return require(1).get() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+      return require(2).getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+      return require(2).getShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+      return require(2).getChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+      return require(4).getInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+      return require(8).getLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+      return require(4).getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+      return require(8).getDouble();
+    }
+
+    @Override
+    public String readLine() {
+      if (!buffer.hasRemaining()) {
+        return null;
+      }
+      StringBuilder line = new StringBuilder();
+      while (buffer.hasRemaining()) {
+        char c = (char) (buffer.get() & 0xFF);
+        if (c == '\n') {
+          break;
+        }
+        if (c == '\r') {
+          if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+            buffer.get();
+          }
+          break;
+        }
+        line.append(c);
+      }
+      return line.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+      return DataInputStream.readUTF(this);
+    }
+  }
+}
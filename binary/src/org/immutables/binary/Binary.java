@@ -0,0 +1,53 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.binary;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Use nested annotations to generate compact binary codecs for value objects.
+ * <p>
+ * This umbrella annotation does nothing.
+ * @see Codec
+ */
+@Target({})
+@Retention(RetentionPolicy.SOURCE)
+public @interface Binary {
+
+  /**
+   * Generates a binary codec for value types. Could be applied to types, enclosing types and
+   * enclosing packages. Codec is generated as nested {@code Codec} class of the immutable
+   * implementation class, which implements {@link BinaryCodec} and uses no reflection.
+   * <p>
+   * Attributes are written in declaration order without names. Integers are written as zig-zag
+   * variable length integers, strings as UTF-8 bytes prefixed with length, enums as ordinals.
+   * Nullable and optional values are prefixed with a presence flag, collections, maps and arrays
+   * with the number of elements. Nested value types which also have binary codec generated are
+   * written recursively. Supported element types are primitives and their wrappers, strings,
+   * enums and such nested values; map values cannot be nested values. Derived attributes are not
+   * written, they are computed on reading. Values are read using builders, so types without
+   * builders or with staged builders are not supported.
+   * <p>
+   * As neither names nor types of attributes are written, encoded form is not compatible across
+   * changes of attributes or of enum constants; use it for replication and RPC between the same
+   * versions of the code, not for long-term storage.
+   */
+  @Target({ElementType.TYPE, ElementType.PACKAGE})
+  public @interface Codec {}
+}
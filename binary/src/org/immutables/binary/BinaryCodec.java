@@ -0,0 +1,44 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Encodes and decodes values in compact binary form. Implementations are generated for value types
+ * annotated with {@link Binary.Codec}. Use {@link Binaries#output(java.nio.ByteBuffer)} and
+ * {@link Binaries#input(java.nio.ByteBuffer)} to write to and read from byte buffers.
+ * @param <T> type of values
+ */
+public interface BinaryCodec<T> {
+  /**
+   * Writes value in binary form.
+   * @param value the value to write
+   * @param output data output
+   * @throws IOException if write failed
+   */
+  void write(T value, DataOutput output) throws IOException;
+
+  /**
+   * Reads value which was written in binary form by {@link #write(Object, DataOutput)}.
+   * @param input data input
+   * @return the value
+   * @throws IOException if read failed
+   */
+  T read(DataInput input) throws IOException;
+}
@@ -0,0 +1,131 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import static org.immutables.check.Checkers.check;
+
+public class BinariesTest {
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final DataOutput output = new DataOutputStream(bytes);
+
+  private DataInput input() {
+    return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+  }
+
+  @Test
+  public void varInts() throws IOException {
+    Binaries.writeVarInt(output, 0);
+    Binaries.writeVarInt(output, 127);
+    Binaries.writeVarInt(output, 128);
+    Binaries.writeVarInt(output, Integer.MAX_VALUE);
+    check(bytes.size()).is(1 + 1 + 2 + 5);
+
+    DataInput input = input();
+    check(Binaries.readVarInt(input)).is(0);
+    check(Binaries.readVarInt(input)).is(127);
+    check(Binaries.readVarInt(input)).is(128);
+    check(Binaries.readVarInt(input)).is(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void signedVarInts() throws IOException {
+    Binaries.writeSignedVarInt(output, -1);
+    Binaries.writeSignedVarInt(output, Integer.MIN_VALUE);
+    Binaries.writeSignedVarLong(output, -2L);
+    Binaries.writeSignedVarLong(output, Long.MAX_VALUE);
+    Binaries.writeSignedVarLong(output, Long.MIN_VALUE);
+
+    DataInput input = input();
+    check(Binaries.readSignedVarInt(input)).is(-1);
+    check(Binaries.readSignedVarInt(input)).is(Integer.MIN_VALUE);
+    check(Binaries.readSignedVarLong(input)).is(-2L);
+    check(Binaries.readSignedVarLong(input)).is(Long.MAX_VALUE);
+    check(Binaries.readSignedVarLong(input)).is(Long.MIN_VALUE);
+  }
+
+  @Test
+  public void strings() throws IOException {
+    Binaries.writeString(output, "");
+    Binaries.writeString(output, "\u0436\u00e9x");
+
+    DataInput input = input();
+    check(Binaries.readString(input)).is("");
+    check(Binaries.readString(input)).is("\u0436\u00e9x");
+  }
+
+  @Test
+  public void byteBuffers() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    DataOutput output = Binaries.output(buffer);
+    Binaries.writeString(output, "abc");
+    output.writeDouble(1.5);
+    output.writeUTF("d");
+    buffer.flip();
+
+    DataInput input = Binaries.input(buffer);
+    check(Binaries.readString(input)).is("abc");
+    check(input.readDouble()).is(1.5);
+    check(input.readUTF()).is("d");
+    check(!buffer.hasRemaining());
+  }
+
+  @Test(expected = IOException.class)
+  public void negativeLength() throws IOException {
+    Binaries.writeVarInt(output, -1);
+    Binaries.readString(input());
+  }
+
+  @Test(expected = IOException.class)
+  public void lengthOverLimit() throws IOException {
+    Binaries.writeVarInt(output, Binaries.MAX_LENGTH + 1);
+    Binaries.readLength(input());
+  }
+
+  @Test
+  public void ordinals() throws IOException {
+    Binaries.writeVarInt(output, 2);
+    check(Binaries.readOrdinal(input(), 3)).is(2);
+  }
+
+  @Test(expected = IOException.class)
+  public void ordinalOutOfRange() throws IOException {
+    Binaries.writeVarInt(output, 3);
+    Binaries.readOrdinal(input(), 3);
+  }
+
+  @Test(expected = EOFException.class)
+  public void stringLengthOverRemaining() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    Binaries.writeVarInt(Binaries.output(buffer), 1000000);
+    buffer.flip();
+    Binaries.readString(Binaries.input(buffer));
+  }
+
+  @Test(expected = EOFException.class)
+  public void byteBufferUnderflow() throws IOException {
+    Binaries.input(ByteBuffer.allocate(2)).readInt();
+  }
+}
@@ -15,9 +15,12 @@
  */
 package org.immutables.gson.adapter;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.internal.bind.JsonTreeReader;
@@ -28,7 +31,10 @@ import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import org.immutables.gson.stream.JsonParserReader;
 
@@ -37,8 +43,15 @@ import org.immutables.gson.stream.JsonParserReader;
  * It just buffers input and try each of delegating type adapters until succeeded. While there may
  * be legit concern about performance, it is most flexible way to handle subtypes by structure and
  * not by discriminator fields of some sort.
+ * <p>
+ * To avoid most of the failing attempts, subtype adapters which implement
+ * {@link RequiredProperties} (generated type adapters do) are tried only when all of their required
+ * properties are present in the buffered object. Usually this leaves a single subtype adapter to read
+ * the value. Subtype adapters without such metadata are always tried.
+ * </p>
  * If failed with all type adapters exception will be thrown, attaching suppressed exceptions for
- * individual delegate adapters.
+ * individual delegate adapters. Subtypes skipped because of missing required properties are listed
+ * in the exception message together with the missing properties.
  * @param <T> supertype to adapt
  */
 public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
@@ -46,6 +59,9 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
   private final Gson gson;
   private final List<TypeAdapter<? extends T>> adapters;
   private final TypeToken<? extends T>[] subtypes;
+  private volatile String[][] requiredProperties;
+
+  private static final String[] NO_PROPERTIES = {};
 
   /**
    * Creates adapter from {@link Gson} and type tokens.
@@ -95,6 +111,24 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
     return adapters;
   }
 
+  private String[][] requiredProperties() {
+    String[][] properties = requiredProperties;
+    if (properties == null) {
+      properties = new String[subtypes.length][];
+      for (int i = 0; i < subtypes.length; i++) {
+        // Adapter is looked up again as, for recursive types, Gson could have
+        // supplied future placeholder instead of actual adapter during construction
+        TypeAdapter<?> adapter = gson.getAdapter(subtypes[i]);
+        properties[i] = adapter instanceof RequiredProperties
+            ? ((RequiredProperties) adapter).requiredProperties()
+            : NO_PROPERTIES;
+      }
+      // benign race, any thread will compute the same properties
+      requiredProperties = properties;
+    }
+    return properties;
+  }
+
   public TypeToken<T> getType() {
     return type;
   }
@@ -123,19 +157,31 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
   @Override
   public T read(JsonReader in) throws IOException {
     List<Exception> exceptions = new ArrayList<>(subtypes.length);
+    StringBuilder skipped = new StringBuilder();
     ReaderSupplier readerSupplier = readForSupplier(in);
-    for (TypeAdapter<?> typeAdapter : adapters) {
+    String[][] requiredProperties = requiredProperties();
+    for (int i = 0; i < subtypes.length; i++) {
+      List<String> missing = readerSupplier.missingProperties(requiredProperties[i]);
+      if (!missing.isEmpty()) {
+        // subtype adapter would certainly fail on missing properties
+        if (skipped.length() > 0) {
+          skipped.append(", ");
+        }
+        skipped.append(subtypes[i]).append(" missing ").append(missing);
+        continue;
+      }
       try {
-        return (T) typeAdapter.read(readerSupplier.create());
+        return (T) adapters.get(i).read(readerSupplier.create());
       } catch (Exception ex) {
         exceptions.add(ex);
       }
     }
     JsonParseException failure = new JsonParseException(
         String.format(
-            "Cannot parse %s with following subtypes: %s",
+            "Cannot parse %s with following subtypes: %s%s",
             type,
-            Arrays.toString(subtypes)));
+            Arrays.toString(subtypes),
+            skipped.length() == 0 ? "" : "; skipped subtypes with missing required properties: " + skipped));
     for (Exception exception : exceptions) {
       failure.addSuppressed(exception);
     }
@@ -152,6 +198,8 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
 
   private interface ReaderSupplier {
     JsonReader create();
+
+    List<String> missingProperties(String[] names) throws IOException;
   }
 
   /**
@@ -169,6 +217,24 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
     public JsonReader create() {
       return new JsonTreeReader(element);
     }
+
+    @Override
+    public List<String> missingProperties(String[] names) {
+      if (names.length == 0) {
+        return Collections.emptyList();
+      }
+      if (!element.isJsonObject()) {
+        return Arrays.asList(names);
+      }
+      JsonObject object = element.getAsJsonObject();
+      List<String> missing = new ArrayList<>();
+      for (String name : names) {
+        if (!object.has(name)) {
+          missing.add(name);
+        }
+      }
+      return missing;
+    }
   }
 
   /**
@@ -179,6 +245,7 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
    */
   private static class JsonParserReaderSupplier implements ReaderSupplier {
     private final TokenBuffer buffer;
+    private Set<String> names;
 
     @SuppressWarnings("resource")
     JsonParserReaderSupplier(JsonReader in) throws IOException {
@@ -189,5 +256,36 @@ public final class ExpectedSubtypesAdapter<T> extends TypeAdapter<T> {
     public JsonReader create() {
       return new JsonParserReader(buffer.asParser());
     }
+
+    @Override
+    public List<String> missingProperties(String[] required) throws IOException {
+      if (required.length == 0) {
+        return Collections.emptyList();
+      }
+      if (names == null) {
+        names = collectNames();
+      }
+      List<String> missing = new ArrayList<>();
+      for (String name : required) {
+        if (!names.contains(name)) {
+          missing.add(name);
+        }
+      }
+      return missing;
+    }
+
+    private Set<String> collectNames() throws IOException {
+      Set<String> names = new HashSet<>();
+      try (JsonParser parser = buffer.asParser()) {
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            names.add(parser.getCurrentName());
+            parser.nextToken();
+            parser.skipChildren();
+          }
+        }
+      }
+      return names;
+    }
   }
 }
@@ -0,0 +1,31 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.gson.adapter;
+
+/**
+ * Implemented by generated type adapters to describe JSON object properties which should be
+ * present to successfully read a value. {@link ExpectedSubtypesAdapter} uses this metadata to skip
+ * subtype adapters which would certainly fail on a given object, so that in most cases only a
+ * single subtype adapter reads the buffered value.
+ */
+public interface RequiredProperties {
+  /**
+   * Names of properties which are mandatory for the read to succeed. Property which could be
+   * read by one of several names is not listed here.
+   * @return array of required property names, may be empty
+   */
+  String[] requiredProperties();
+}
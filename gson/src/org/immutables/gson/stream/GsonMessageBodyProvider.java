@@ -21,28 +21,34 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.ServiceLoader;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -63,6 +69,16 @@ import org.immutables.value.Value.Style.ImplementationVisibility;
 
 /**
  * Gson serialization provider for JAX-RS 1.0 and JAX-RS 2.0.
+ * <p>
+ * Entities declared as {@link Iterator}, {@link Iterable} or Java 8 stream, or as their subtypes
+ * (such as database cursors) which have no Gson adapter, are written as JSON array element by
+ * element, periodically flushing output, so that they are never fully materialized in memory.
+ * Collections and other types having adapters are written by their adapters. Iterators and
+ * streams are closed after being written if they are {@link AutoCloseable}. When {@link Iterator}
+ * is requested as entity type, JSON array elements are lazily read from the request body while
+ * iterating. Exceptions of the lazy read are thrown from the iterator's methods as
+ * {@link JsonParseException} and are not passed to the {@link ExceptionHandler}.
+ * </p>
  */
 @Provider
 @Metainf.Service
@@ -188,8 +204,11 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
     Object read(Gson gson, Type type, InputStream stream) throws IOException;
   }
 
+  /**
+   * Streamer over Gson's own reader and writer. UTF-8 is decoded and encoded directly with
+   * byte buffers recycled per thread, see {@link Utf8Reader} and {@link Utf8Writer}.
+   */
   private static class GsonStreamer implements Streamer {
-    private static final String CHARSET_NAME = "utf-8";
     private final GsonOptions options;
 
     GsonStreamer(GsonOptions options) {
@@ -199,13 +218,14 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
     @SuppressWarnings("unchecked")
     @Override
     public void write(Gson gson, Type type, Object object, OutputStream stream) throws IOException {
-      @Nullable JsonWriter writer = null;
+      @Nullable Utf8Writer output = null;
       boolean wasOriginalException = false;
       try {
-        writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(stream, CHARSET_NAME)));
+        output = new Utf8Writer(stream);
+        JsonWriter writer = new JsonWriter(output);
         options.setWriterOptions(writer);
 
-        gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).write(writer, object);
+        writeEntity(gson, type, object, writer);
       } catch (IOException ex) {
         wasOriginalException = true;
         throw ex;
@@ -213,10 +233,10 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
         wasOriginalException = true;
         throw new IOException(ex);
       } finally {
-        if (writer != null) {
+        if (output != null) {
           try {
-            // underlying stream should not be closed, just flushing
-            writer.flush();
+            // underlying stream is not closed, just flushed, while buffer is recycled
+            output.close();
           } catch (IOException ex) {
             if (!wasOriginalException) {
               throw ex;
@@ -229,16 +249,27 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
     @SuppressWarnings("unchecked")
     @Override
     public Object read(Gson gson, Type type, InputStream stream) throws IOException {
-      @Nullable JsonReader reader = null;
+      @Nullable Utf8Reader input = null;
       try {
-        reader = createJsonReader(new BufferedReader(new InputStreamReader(stream, CHARSET_NAME)));
+        input = new Utf8Reader(stream);
+        JsonReader reader = createJsonReader(input);
         options.setReaderOptions(reader);
 
-        return gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).read(reader);
+        Object entity = readEntity(gson, type, reader, input);
+        if (entity instanceof ElementIterator) {
+          // input will be closed by iterator when array is read to the end
+          input = null;
+        }
+        return entity;
       } catch (IOException ex) {
         throw ex;
       } catch (Exception ex) {
         throw new IOException(ex);
+      } finally {
+        if (input != null) {
+          // underlying stream is not closed, buffer is recycled
+          input.close();
+        }
       }
     }
 
@@ -263,6 +294,11 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
     }
   }
 
+  /**
+   * Streamer over Jackson's parser and generator, which work with UTF-8 bytes directly.
+   * Parser and generator are cheap to create, while their buffers are recycled per thread
+   * when they are closed, which Jackson does by default.
+   */
   private static class JacksonStreamer implements Streamer {
     private static final JsonFactory JSON_FACTORY = new JsonFactory()
         .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
@@ -287,7 +323,7 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
         writer = new JsonGeneratorWriter(generator);
         options.setWriterOptions(writer);
 
-        gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).write(writer, object);
+        writeEntity(gson, type, object, writer);
       } catch (IOException ex) {
         wasOriginalException = true;
         throw ex;
@@ -315,7 +351,12 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
       try {
         reader = new JsonParserReader(JSON_FACTORY.createParser(stream));
         options.setReaderOptions(reader);
-        return gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).read(reader);
+        Object entity = readEntity(gson, type, reader, reader);
+        if (entity instanceof ElementIterator) {
+          // reader will be closed by iterator when array is read to the end
+          reader = null;
+        }
+        return entity;
       } catch (IOException ex) {
         throw ex;
       } catch (Exception ex) {
@@ -333,6 +374,162 @@ public class GsonMessageBodyProvider implements MessageBodyReader<Object>, Messa
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static void writeEntity(Gson gson, Type type, Object object, JsonWriter writer) throws Exception {
+    Class<?> base = streamingBaseClass(gson, type);
+    if (base == null) {
+      gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).write(writer, object);
+      return;
+    }
+    Iterator<?> iterator = null;
+    try {
+      TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(elementType(type, base)));
+      iterator = base == Iterable.class
+          ? ((Iterable<?>) object).iterator()
+          : base == Iterator.class
+              ? (Iterator<?>) object
+              : (Iterator<?>) BaseStreams.ITERATOR.invoke(object);
+      writer.beginArray();
+      for (int count = 1; iterator.hasNext(); count++) {
+        adapter.write(writer, iterator.next());
+        if (count % STREAMING_FLUSH_INTERVAL == 0) {
+          writer.flush();
+        }
+      }
+      writer.endArray();
+    } finally {
+      if (iterator instanceof AutoCloseable) {
+        ((AutoCloseable) iterator).close();
+      }
+      if (base == BaseStreams.CLASS) {
+        ((AutoCloseable) object).close();
+      }
+    }
+  }
+
+  /**
+   * Entity is streamed when declared as iterator, iterable or stream, or as their subtype which
+   * has no adapter other than reflective one, so that adapters for types implementing
+   * {@link Iterable}, such as collections or value types, are never bypassed.
+   */
+  private static @Nullable Class<?> streamingBaseClass(Gson gson, Type type) {
+    Class<?> rawType = TypeToken.get(type).getRawType();
+    if (rawType == Iterator.class || rawType == Iterable.class || rawType == BaseStreams.CLASS) {
+      return rawType;
+    }
+    Class<?> base = Iterator.class.isAssignableFrom(rawType) ? Iterator.class
+        : Iterable.class.isAssignableFrom(rawType) ? Iterable.class
+            : BaseStreams.CLASS != null && BaseStreams.CLASS.isAssignableFrom(rawType) ? BaseStreams.CLASS
+                : null;
+    if (base != null && gson.getAdapter(TypeToken.get(type)) instanceof ReflectiveTypeAdapterFactory.Adapter) {
+      return base;
+    }
+    return null;
+  }
+
+  /**
+   * Takes first type argument as element type, as it is for iterators, iterables and streams
+   * themselves and for the usual subtypes like cursors. Raw or unresolved types are read and
+   * written as Object, using runtime types of elements on write.
+   */
+  private static Type elementType(Type type, Class<?> base) {
+    if (type instanceof ParameterizedType
+        && base.isAssignableFrom(TypeToken.get(type).getRawType())) {
+      Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+      if (!(elementType instanceof TypeVariable<?>)) {
+        return elementType;
+      }
+    }
+    return Object.class;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object readEntity(Gson gson, Type type, JsonReader reader, @Nullable Closeable resource)
+      throws IOException {
+    if (TypeToken.get(type).getRawType() == Iterator.class) {
+      TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(elementType(type, Iterator.class)));
+      return new ElementIterator(adapter, reader, resource);
+    }
+    return gson.getAdapter((TypeToken<Object>) TypeToken.get(type)).read(reader);
+  }
+
+  /**
+   * Lazily reads JSON array elements, array start is read eagerly so that malformed entity is
+   * reported while reading request body.
+   */
+  private static final class ElementIterator implements Iterator<Object> {
+    private final TypeAdapter<?> adapter;
+    private final JsonReader reader;
+    private @Nullable Closeable resource;
+    private boolean ended;
+
+    ElementIterator(TypeAdapter<?> adapter, JsonReader reader, @Nullable Closeable resource)
+        throws IOException {
+      this.adapter = adapter;
+      this.reader = reader;
+      this.resource = resource;
+      reader.beginArray();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (ended) {
+        return false;
+      }
+      try {
+        if (reader.hasNext()) {
+          return true;
+        }
+        reader.endArray();
+        ended = true;
+        if (resource != null) {
+          resource.close();
+          resource = null;
+        }
+        return false;
+      } catch (IOException ex) {
+        throw new JsonIOException(ex);
+      }
+    }
+
+    @Override
+    public Object next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        return adapter.read(reader);
+      } catch (IOException ex) {
+        throw new JsonIOException(ex);
+      }
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static final int STREAMING_FLUSH_INTERVAL = 100;
+
+  /** Streams are looked up reflectively, as there are no streams prior to Java 8. */
+  private static final class BaseStreams {
+    static final @Nullable Class<?> CLASS;
+    static final @Nullable Method ITERATOR;
+    static {
+      Class<?> baseStreamClass = null;
+      Method baseStreamIterator = null;
+      try {
+        baseStreamClass = Class.forName("java.util.stream.BaseStream");
+        baseStreamIterator = baseStreamClass.getMethod("iterator");
+      } catch (Exception ex) {
+        baseStreamClass = null;
+      }
+      CLASS = baseStreamClass;
+      ITERATOR = baseStreamIterator;
+    }
+  }
+
   /**
    * Implement streaming exception handler. If now exception will be thrown by handler methods,
    * original {@link IOException} will be rethrown. Note that any runtime exceptions thrown by
@@ -16,6 +16,9 @@
 package org.immutables.gson.stream;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.io.Writer;
@@ -26,6 +29,13 @@ import javax.annotation.concurrent.NotThreadSafe;
  * {@link JsonWriter} impementation backed by Jackson's {@link JsonGenerator}.
  * Provides measurable JSON writing improvements over Gson's native implementation.
  * Error reporting is might differ, however.
+ * <p>
+ * Generated type adapters write field names using {@link #name(SerializableString)} with
+ * {@link SerializedString} constants held by each adapter, so that escaping and encoding of the
+ * same names is done once and not for each written object. Such pre-encoded names are not used
+ * when the generator is configured with custom {@link CharacterEscapes} or to escape non-ASCII
+ * characters, as pre-encoded names would bypass these settings.
+ * </p>
  */
 @NotThreadSafe
 public class JsonGeneratorWriter extends JsonWriter implements Callable<JsonGenerator> {
@@ -87,6 +97,23 @@ public class JsonGeneratorWriter extends JsonWriter implements Callable<JsonGene
     return this;
   }
 
+  /**
+   * Writes pre-encoded field name, unless custom escaping is configured for the generator, in
+   * which case name is written as a string to be escaped by the generator.
+   * @param name the field name
+   * @return this writer
+   * @throws IOException if write failed
+   */
+  public JsonWriter name(SerializableString name) throws IOException {
+    if (generator.getCharacterEscapes() != null
+        || generator.isEnabled(JsonGenerator.Feature.ESCAPE_NON_ASCII)) {
+      generator.writeFieldName(name.getValue());
+    } else {
+      generator.writeFieldName(name);
+    }
+    return this;
+  }
+
   @Override
   public JsonWriter value(String value) throws IOException {
     if (value == null) {
@@ -0,0 +1,201 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.gson.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Reader which decodes UTF-8 directly from a byte buffer, skipping charset decoder of
+ * {@code InputStreamReader} and intermediate char buffer of {@code BufferedReader}, which is
+ * redundant as {@code JsonReader} has its own. Byte buffer is recycled per thread on
+ * {@link #close()}, which does not close underlying stream. Each byte of malformed input is
+ * decoded as {@code '\uFFFD'} replacement character.
+ */
+@NotThreadSafe
+final class Utf8Reader extends Reader {
+  private static final int BUFFER_SIZE = 8192;
+  private static final char REPLACEMENT = '\uFFFD';
+  private static final ThreadLocal<byte[]> recycledBuffer = new ThreadLocal<>();
+
+  private final InputStream in;
+  private byte[] buffer;
+  private int position;
+  private int limit;
+  private boolean eof;
+  private char lowSurrogate;
+
+  Utf8Reader(InputStream in) {
+    this.in = in;
+    byte[] buffer = recycledBuffer.get();
+    if (buffer != null) {
+      // claimed buffer is not available to other readers on this thread until released
+      recycledBuffer.set(null);
+    } else {
+      buffer = new byte[BUFFER_SIZE];
+    }
+    this.buffer = buffer;
+  }
+
+  @Override
+  public int read(char[] chars, int offset, int length) throws IOException {
+    if (buffer == null) {
+      throw new IOException("Reader closed");
+    }
+    if (length == 0) {
+      return 0;
+    }
+    int count = 0;
+    if (lowSurrogate != 0) {
+      chars[offset + count++] = lowSurrogate;
+      lowSurrogate = 0;
+    }
+    byte[] b = buffer;
+    while (count < length) {
+      int available = limit - position;
+      if (available < 4 && !eof) {
+        // do not block if some chars are already decoded
+        if (available == 0) {
+          if (count > 0 || !fill(1)) {
+            break;
+          }
+          available = limit - position;
+        }
+        int needed = sequenceLength(b[position] & 0xFF);
+        if (available < needed) {
+          if (count > 0) {
+            break;
+          }
+          fill(needed);
+          available = limit - position;
+        }
+      }
+      if (available == 0) {
+        break;
+      }
+      int b0 = b[position] & 0xFF;
+      if (b0 < 0x80) {
+        position++;
+        chars[offset + count++] = (char) b0;
+        continue;
+      }
+      int sequenceLength = sequenceLength(b0);
+      int codePoint = sequenceLength <= available ? decode(b0, sequenceLength) : -1;
+      if (codePoint < 0) {
+        // malformed or truncated sequence, replacing single byte
+        position++;
+        chars[offset + count++] = REPLACEMENT;
+      } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+        position += sequenceLength;
+        chars[offset + count++] = (char) codePoint;
+      } else {
+        position += sequenceLength;
+        chars[offset + count++] = Character.highSurrogate(codePoint);
+        if (count < length) {
+          chars[offset + count++] = Character.lowSurrogate(codePoint);
+        } else {
+          lowSurrogate = Character.lowSurrogate(codePoint);
+        }
+      }
+    }
+    return count == 0 ? -1 : count;
+  }
+
+  private static int sequenceLength(int b0) {
+    if (b0 >= 0xF0) {
+      return 4;
+    }
+    if (b0 >= 0xE0) {
+      return 3;
+    }
+    if (b0 >= 0xC0) {
+      return 2;
+    }
+    return 1;
+  }
+
+  /** Decodes sequence at current position, returns -1 if sequence is malformed. */
+  private int decode(int b0, int sequenceLength) {
+    byte[] b = buffer;
+    int p = position;
+    switch (sequenceLength) {
+    case 2: {
+      int b1 = b[p + 1];
+      if ((b1 & 0xC0) != 0x80 || b0 < 0xC2) {
+        return -1;
+      }
+      return ((b0 & 0x1F) << 6) | (b1 & 0x3F);
+    }
+    case 3: {
+      int b1 = b[p + 1];
+      int b2 = b[p + 2];
+      if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80) {
+        return -1;
+      }
+      int c = ((b0 & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+      if (c < 0x800 || Character.isSurrogate((char) c)) {
+        return -1;
+      }
+      return c;
+    }
+    case 4: {
+      int b1 = b[p + 1];
+      int b2 = b[p + 2];
+      int b3 = b[p + 3];
+      if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80 || b0 > 0xF4) {
+        return -1;
+      }
+      int c = ((b0 & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+      if (c < Character.MIN_SUPPLEMENTARY_CODE_POINT || c > Character.MAX_CODE_POINT) {
+        return -1;
+      }
+      return c;
+    }
+    default:
+      // unexpected continuation byte
+      return -1;
+    }
+  }
+
+  /** Reads until at least needed bytes are available or end of stream is reached. */
+  private boolean fill(int needed) throws IOException {
+    int available = limit - position;
+    if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, available);
+      position = 0;
+      limit = available;
+    }
+    while (limit < needed) {
+      int read = in.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        eof = true;
+        break;
+      }
+      limit += read;
+    }
+    return limit > 0;
+  }
+
+  @Override
+  public void close() {
+    if (buffer != null) {
+      recycledBuffer.set(buffer);
+      buffer = null;
+    }
+  }
+}
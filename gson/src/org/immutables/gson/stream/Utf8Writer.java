@@ -0,0 +1,141 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.gson.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Writer which encodes characters to UTF-8 directly into a byte buffer, skipping charset encoder
+ * and intermediate char buffer of {@code BufferedWriter} over {@code OutputStreamWriter}.
+ * Byte buffer is recycled per thread on {@link #close()}, which flushes but does not close
+ * underlying stream. Malformed surrogates are written as {@code '?'}, as JDK encoder does.
+ */
+@NotThreadSafe
+final class Utf8Writer extends Writer {
+  private static final int BUFFER_SIZE = 8192;
+  private static final ThreadLocal<byte[]> recycledBuffer = new ThreadLocal<>();
+
+  private final OutputStream out;
+  private byte[] buffer;
+  private int position;
+  private char highSurrogate;
+
+  Utf8Writer(OutputStream out) {
+    this.out = out;
+    byte[] buffer = recycledBuffer.get();
+    if (buffer != null) {
+      // claimed buffer is not available to other writers on this thread until released
+      recycledBuffer.set(null);
+    } else {
+      buffer = new byte[BUFFER_SIZE];
+    }
+    this.buffer = buffer;
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    encode((char) c);
+  }
+
+  @Override
+  public void write(char[] chars, int offset, int length) throws IOException {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(chars[i]);
+    }
+  }
+
+  @Override
+  public void write(String string, int offset, int length) throws IOException {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      encode(string.charAt(i));
+    }
+  }
+
+  private void encode(char c) throws IOException {
+    checkOpen();
+    if (position + 4 > buffer.length) {
+      flushBuffer();
+    }
+    byte[] b = buffer;
+    if (highSurrogate != 0) {
+      char high = highSurrogate;
+      highSurrogate = 0;
+      if (Character.isLowSurrogate(c)) {
+        int codePoint = Character.toCodePoint(high, c);
+        b[position++] = (byte) (0xF0 | (codePoint >> 18));
+        b[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        b[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        b[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        return;
+      }
+      b[position++] = '?';
+      if (position + 3 > b.length) {
+        flushBuffer();
+      }
+    }
+    if (c < 0x80) {
+      b[position++] = (byte) c;
+    } else if (c < 0x800) {
+      b[position++] = (byte) (0xC0 | (c >> 6));
+      b[position++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c)) {
+      highSurrogate = c;
+    } else if (Character.isLowSurrogate(c)) {
+      b[position++] = '?';
+    } else {
+      b[position++] = (byte) (0xE0 | (c >> 12));
+      b[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      b[position++] = (byte) (0x80 | (c & 0x3F));
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (buffer == null) {
+      throw new IOException("Writer closed");
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    checkOpen();
+    flushBuffer();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (buffer == null) {
+      return;
+    }
+    if (highSurrogate != 0) {
+      highSurrogate = 0;
+      encode('?');
+    }
+    flush();
+    recycledBuffer.set(buffer);
+    buffer = null;
+  }
+}
@@ -24,6 +24,7 @@ public class AlternateNameTest {
   private final Gson gson = new GsonBuilder()
       .registerTypeAdapterFactory(new GsonAdaptersAlternateNames())
       .registerTypeAdapterFactory(new GsonAdaptersAlternateNamesStrategy())
+      .registerTypeAdapterFactory(new GsonAdaptersCollidingNames())
       .create();
 
   @Test
@@ -39,4 +40,12 @@ public class AlternateNameTest {
     check(gson.fromJson("{\"URL\":\"b\"}", AlternateNamesStrategy.class).url()).is("b");
     check(gson.fromJson("{\"href\":\"c\"}", AlternateNamesStrategy.class).url()).is("c");
   }
+
+  @Test
+  public void collidingFirstCharacters() {
+    CollidingNames names = gson.fromJson("{\"AB\":2,\"\":0,\"Aa\":1}", CollidingNames.class);
+    check(names.aa()).is(1);
+    check(names.bb()).is(2);
+    check(gson.fromJson("{\"Aa\":1,\"A#\":3}", CollidingNames.class).bb()).is(3);
+  }
 }
@@ -16,10 +16,13 @@
 package org.immutables.gson.adapter;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.reflect.TypeToken;
+import org.immutables.gson.adapter.Events.Event;
 import org.junit.Test;
 import static org.immutables.check.Checkers.check;
 
@@ -59,4 +62,71 @@ public class ExpectedSubtypesAdapterTest {
 
     subtypesAdaper.fromJsonTree(new JsonArray());
   }
+
+  @Test
+  public void requiredProperties() {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(new GsonAdaptersEvents())
+        .create();
+
+    RequiredProperties created = (RequiredProperties) gson.getAdapter(ImmutableEvents.Created.class);
+    RequiredProperties deleted = (RequiredProperties) gson.getAdapter(ImmutableEvents.Deleted.class);
+
+    check(created.requiredProperties()).isOf("id", "name");
+    check(deleted.requiredProperties()).isOf("id");
+  }
+
+  @Test
+  public void readSubtypeByRequiredProperties() {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(new GsonAdaptersEvents())
+        .create();
+
+    ExpectedSubtypesAdapter<Event> subtypesAdaper = ExpectedSubtypesAdapter.create(gson,
+        Event.class,
+        TypeToken.get(Events.Renamed.class),
+        TypeToken.get(Events.Created.class),
+        TypeToken.get(Events.Deleted.class));
+
+    check(subtypesAdaper.fromJsonTree(gson.toJsonTree(ImmutableEvents.Created.builder()
+        .id("1")
+        .name("a")
+        .build()))).isA(ImmutableEvents.Created.class);
+
+    check(subtypesAdaper.fromJsonTree(gson.toJsonTree(ImmutableEvents.Deleted.builder()
+        .id("1")
+        .build()))).isA(ImmutableEvents.Deleted.class);
+
+    check(subtypesAdaper.fromJsonTree(gson.toJsonTree(ImmutableEvents.Renamed.builder()
+        .id("1")
+        .name("b")
+        .previous("a")
+        .build()))).isA(ImmutableEvents.Renamed.class);
+  }
+
+  @Test
+  public void skipSubtypesWithMissingProperties() {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(new GsonAdaptersEvents())
+        .create();
+
+    ExpectedSubtypesAdapter<Event> subtypesAdaper = ExpectedSubtypesAdapter.create(gson,
+        Event.class,
+        TypeToken.get(Events.Renamed.class),
+        TypeToken.get(Events.Created.class),
+        TypeToken.get(Events.Deleted.class));
+
+    JsonObject object = new JsonObject();
+    object.addProperty("name", "a");
+
+    try {
+      subtypesAdaper.fromJsonTree(object);
+      check(false);
+    } catch (JsonParseException ex) {
+      // none of the subtype adapters were even tried
+      check(ex.getSuppressed()).isEmpty();
+      check(ex.getMessage()).contains("Events$Renamed missing [id, previous]");
+      check(ex.getMessage()).contains("Events$Deleted missing [id]");
+    }
+  }
 }
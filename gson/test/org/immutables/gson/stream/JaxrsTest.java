@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.ws.rs.WebApplicationException;
@@ -107,6 +108,41 @@ public class JaxrsTest {
     check(result).isOf("x", "y", "[11]");
   }
 
+  @Test
+  public void streamingIterators() {
+    List<String> result = client.target(SERVER_URI)
+        .path("/iterator")
+        .request(MediaType.APPLICATION_JSON_TYPE)
+        .accept(MediaType.APPLICATION_JSON_TYPE)
+        .post(Entity.json(Arrays.asList(1, 2, 3)), new GenericType<List<String>>() {});
+
+    check(result).isOf("#1", "#2", "#3");
+  }
+
+  @Test
+  public void streamingIterable() {
+    List<Integer> result = client.target(SERVER_URI)
+        .path("/iterable")
+        .request()
+        .accept(MediaType.APPLICATION_JSON_TYPE)
+        .get(new GenericType<List<Integer>>() {});
+
+    check(result).hasSize(250);
+    check(result.get(249)).is(249);
+  }
+
+  @Test
+  public void iterableWithAdapterNotStreamed() {
+    Resource.Range result = client.target(SERVER_URI)
+        .path("/range")
+        .request()
+        .accept(MediaType.APPLICATION_JSON_TYPE)
+        .get(Resource.Range.class);
+
+    check(result.from).is(1);
+    check(result.to).is(4);
+  }
+
   @Test
   public void defaultErrorHandling() {
     try {
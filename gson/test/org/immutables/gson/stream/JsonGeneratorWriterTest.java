@@ -0,0 +1,63 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.gson.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Test;
+import static org.immutables.check.Checkers.check;
+
+public class JsonGeneratorWriterTest {
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  @Test
+  public void writeSerializedNames() throws IOException {
+    check(writeObjects(3, false)).is("[{\"a\":1,\"q\\\"\":true},{\"a\":1,\"q\\\"\":true},{\"a\":1,\"q\\\"\":true}]");
+    check(writeObjects(1, false)).is("[{\"a\":1,\"q\\\"\":true}]");
+  }
+
+  @Test
+  public void escapeSerializedNamesIfConfigured() throws IOException {
+    check(writeObjects(1, true)).is("[{\"a\":1,\"q\\\"\":true,\"\\u00E9\":null}]");
+  }
+
+  private String writeObjects(int count, boolean escapeNonAscii) throws IOException {
+    SerializedString a = new SerializedString("a");
+    SerializedString q = new SerializedString("q\"");
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+      JsonGeneratorWriter out = new JsonGeneratorWriter(generator);
+      if (escapeNonAscii) {
+        generator.enable(JsonGenerator.Feature.ESCAPE_NON_ASCII);
+      }
+      out.beginArray();
+      for (int i = 0; i < count; i++) {
+        out.beginObject();
+        out.name(a).value(1);
+        out.name(q).value(true);
+        if (escapeNonAscii) {
+          out.name(new SerializedString("\u00e9")).nullValue();
+        }
+        out.endObject();
+      }
+      out.endArray();
+    }
+    return writer.toString();
+  }
+}
@@ -15,7 +15,14 @@
  */
 package org.immutables.gson.stream;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import javax.ws.rs.Consumes;
@@ -86,4 +93,79 @@ public class Resource {
         .putMapDouble("double", 5.0)
         .build();
   }
+
+  @Path("/iterator")
+  @POST
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  public Iterator<String> iterator(Iterator<Integer> integers) {
+    List<String> strings = new ArrayList<>();
+    while (integers.hasNext()) {
+      strings.add("#" + integers.next());
+    }
+    return strings.iterator();
+  }
+
+  @Path("/iterable")
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  public Iterable<Integer> iterable() {
+    final List<Integer> integers = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      integers.add(i);
+    }
+    // not a collection, so will be streamed
+    return new Iterable<Integer>() {
+      @Override
+      public Iterator<Integer> iterator() {
+        return integers.iterator();
+      }
+    };
+  }
+
+  @Path("/range")
+  @GET
+  @Produces(MediaType.APPLICATION_JSON)
+  public Range range() {
+    return new Range(1, 4);
+  }
+
+  /** Iterable with its own adapter, so is written as object rather than streamed as array. */
+  @JsonAdapter(Range.Adapter.class)
+  public static class Range implements Iterable<Integer> {
+    final int from;
+    final int to;
+
+    Range(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      List<Integer> integers = new ArrayList<>();
+      for (int i = from; i < to; i++) {
+        integers.add(i);
+      }
+      return integers.iterator();
+    }
+
+    static class Adapter extends TypeAdapter<Range> {
+      @Override
+      public void write(JsonWriter out, Range value) throws IOException {
+        out.beginObject().name("from").value(value.from).name("to").value(value.to).endObject();
+      }
+
+      @Override
+      public Range read(JsonReader in) throws IOException {
+        in.beginObject();
+        in.nextName();
+        int from = in.nextInt();
+        in.nextName();
+        int to = in.nextInt();
+        in.endObject();
+        return new Range(from, to);
+      }
+    }
+  }
 }
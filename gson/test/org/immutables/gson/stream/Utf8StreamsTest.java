@@ -0,0 +1,86 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.gson.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.immutables.check.Checkers.check;
+
+public class Utf8StreamsTest {
+  private static final String SAMPLE = "a\u00e9\u0436\u20ac\ud83d\ude00z";
+
+  @Test
+  public void encode() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      Utf8Writer writer = new Utf8Writer(bytes);
+      writer.write(repeat(SAMPLE, 2000));
+      writer.close();
+      check(Arrays.equals(bytes.toByteArray(), toBytes(repeat(SAMPLE, 2000))));
+    }
+  }
+
+  @Test
+  public void encodeMalformedSurrogates() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Utf8Writer writer = new Utf8Writer(bytes);
+    writer.write("a\ud800b\udc00c\ud800");
+    writer.close();
+    check(new String(bytes.toByteArray(), StandardCharsets.UTF_8)).is("a?b?c?");
+  }
+
+  @Test
+  public void decode() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      String sample = repeat(SAMPLE, 2000);
+      Utf8Reader reader = new Utf8Reader(new ByteArrayInputStream(toBytes(sample)));
+      StringBuilder builder = new StringBuilder();
+      // odd-sized chunks split surrogate pairs between reads
+      char[] chars = new char[7];
+      for (int count; (count = reader.read(chars, 0, chars.length)) >= 0;) {
+        builder.append(chars, 0, count);
+      }
+      reader.close();
+      check(builder.toString()).is(sample);
+    }
+  }
+
+  @Test
+  public void decodeMalformed() throws IOException {
+    byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0x80};
+    Utf8Reader reader = new Utf8Reader(new ByteArrayInputStream(bytes));
+    char[] chars = new char[8];
+    int count = reader.read(chars, 0, chars.length);
+    reader.close();
+    check(new String(chars, 0, count)).is("a\ufffdb\ufffd");
+  }
+
+  private static byte[] toBytes(String string) {
+    return string.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String repeat(String string, int times) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(string);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,468 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import javax.annotation.Nullable;
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Compressed representation of ordinal set used for large sparse domains. Ordinal space is split
+ * into chunks of 2^16 ordinals, only non-empty chunks are stored. Each chunk is stored by the most
+ * compact container: sorted array of low bits for sparse chunks, bitmap for dense chunks and
+ * sorted runs for chunks which consists of long contiguous ranges. Choice of container is
+ * deterministic for the content, so equal sets have equal containers.
+ * @param <E> element type
+ */
+final class CompressedImmutableOrdinalSet<E extends OrdinalValue<E>> extends ImmutableOrdinalSet<E> {
+  private static final int CHUNK_BITS = 16;
+  private static final int LOW_MASK = (1 << CHUNK_BITS) - 1;
+  private static final int BITMAP_WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+  private static final int BITMAP_BYTES = BITMAP_WORDS * 8;
+
+  private final OrdinalDomain<E> domain;
+  /** High bits of ordinals for each chunk, sorted. */
+  private final int[] keys;
+  private final Container[] containers;
+  private final int size;
+  private int hashCode;
+
+  private CompressedImmutableOrdinalSet(OrdinalDomain<E> domain, int[] keys, Container[] containers, int size) {
+    this.domain = domain;
+    this.keys = keys;
+    this.containers = containers;
+    this.size = size;
+  }
+
+  static <E extends OrdinalValue<E>> CompressedImmutableOrdinalSet<E> fromElements(
+      OrdinalDomain<E> domain,
+      OrdinalValue<?>[] elements) {
+    int[] ordinals = new int[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      OrdinalValue<?> e = elements[i];
+      checkArgument(e.domain().equals(domain), "Element has different domain %s", e);
+      ordinals[i] = e.ordinal();
+    }
+    Arrays.sort(ordinals);
+    for (int i = 1; i < ordinals.length; i++) {
+      if (ordinals[i] == ordinals[i - 1]) {
+        checkArgument(false, "Duplicate element %s", domain.get(ordinals[i]));
+      }
+    }
+    return fromOrdinals(domain, ordinals, ordinals.length);
+  }
+
+  /**
+   * @param ordinals sorted distinct ordinals
+   * @param count number of ordinals to use from array
+   */
+  static <E extends OrdinalValue<E>> CompressedImmutableOrdinalSet<E> fromOrdinals(
+      OrdinalDomain<E> domain,
+      int[] ordinals,
+      int count) {
+    int chunkCount = 0;
+    for (int i = 0, lastKey = -1; i < count; i++) {
+      int key = ordinals[i] >>> CHUNK_BITS;
+      if (key != lastKey) {
+        chunkCount++;
+        lastKey = key;
+      }
+    }
+    int[] keys = new int[chunkCount];
+    Container[] containers = new Container[chunkCount];
+    for (int i = 0, c = 0; i < count; c++) {
+      int key = ordinals[i] >>> CHUNK_BITS;
+      int end = i + 1;
+      while (end < count && (ordinals[end] >>> CHUNK_BITS) == key) {
+        end++;
+      }
+      keys[c] = key;
+      containers[c] = Container.create(ordinals, i, end);
+      i = end;
+    }
+    return new CompressedImmutableOrdinalSet<>(domain, keys, containers, count);
+  }
+
+  @Override
+  protected Set<E> delegate() {
+    return ImmutableSet.copyOf(iterator());
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new AbstractIterator<E>() {
+      private int next = nextOrdinal(0);
+
+      @Override
+      protected E computeNext() {
+        int ordinal = next;
+        if (ordinal < 0) {
+          return endOfData();
+        }
+        next = ordinal == Integer.MAX_VALUE ? -1 : nextOrdinal(ordinal + 1);
+        return domain.get(ordinal);
+      }
+    };
+  }
+
+  @Override
+  public boolean contains(@Nullable Object object) {
+    if (object instanceof OrdinalValue<?>) {
+      OrdinalValue<?> value = (OrdinalValue<?>) object;
+      if (value.domain().equals(domain)) {
+        return containsOrdinal(value.ordinal());
+      }
+    }
+    return false;
+  }
+
+  @Override
+  boolean containsOrdinal(int ordinal) {
+    int c = Arrays.binarySearch(keys, ordinal >>> CHUNK_BITS);
+    return c >= 0 && containers[c].contains(ordinal & LOW_MASK);
+  }
+
+  @Override
+  int nextOrdinal(int from) {
+    int c = Arrays.binarySearch(keys, from >>> CHUNK_BITS);
+    int low = from & LOW_MASK;
+    if (c < 0) {
+      c = -c - 1;
+      low = 0;
+    }
+    for (; c < containers.length; c++, low = 0) {
+      int next = containers[c].next(low);
+      if (next >= 0) {
+        return (keys[c] << CHUNK_BITS) | next;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> collection) {
+    int size = collection.size();
+    if (size == 0) {
+      return true;
+    }
+    if (size == 1) {
+      return contains(Iterables.get(collection, 0));
+    }
+    if (collection instanceof ImmutableOrdinalSet<?>) {
+      ImmutableOrdinalSet<?> otherSet = (ImmutableOrdinalSet<?>) collection;
+      return domain.equals(otherSet.domainOrNull())
+          && size <= this.size
+          && containsAllOrdinalsOf(otherSet);
+    }
+    return super.containsAll(collection);
+  }
+
+  @Override
+  public boolean containsAny(Collection<?> collection) {
+    int size = collection.size();
+    if (size == 0) {
+      return false;
+    }
+    if (size == 1) {
+      return contains(Iterables.get(collection, 0));
+    }
+    if (collection instanceof ImmutableOrdinalSet<?>) {
+      ImmutableOrdinalSet<?> otherSet = (ImmutableOrdinalSet<?>) collection;
+      return domain.equals(otherSet.domainOrNull()) && containsAnyOrdinalOf(otherSet);
+    }
+    return super.containsAny(collection);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return false;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void incrementCounters(int[] counters) {
+    for (int ordinal = nextOrdinal(0); ordinal >= 0; ordinal = nextOrdinal(ordinal + 1)) {
+      counters[ordinal]++;
+    }
+  }
+
+  @Override
+  public boolean equals(@Nullable Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof CompressedImmutableOrdinalSet<?>) {
+      CompressedImmutableOrdinalSet<?> otherSet = (CompressedImmutableOrdinalSet<?>) object;
+      return size == otherSet.size
+          && domain.equals(otherSet.domain)
+          && Arrays.equals(keys, otherSet.keys)
+          && Arrays.equals(containers, otherSet.containers);
+    }
+    return standardEquals(object);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hashCode;
+    if (h == 0) {
+      h = standardHashCode();
+      hashCode = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return standardToString();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return standardToArray();
+  }
+
+  @Override
+  public <T> T[] toArray(T[] array) {
+    return standardToArray(array);
+  }
+
+  @Override
+  OrdinalDomain<E> domainOrNull() {
+    return domain;
+  }
+
+  @Override
+  long[] words() {
+    int maxOrdinal = (keys[keys.length - 1] << CHUNK_BITS) | containers[containers.length - 1].last();
+    long[] vector = new long[(maxOrdinal >>> 6) + 1];
+    for (int ordinal = nextOrdinal(0); ordinal >= 0; ordinal = nextOrdinal(ordinal + 1)) {
+      vector[ordinal >>> 6] |= 1L << ordinal;
+    }
+    return vector;
+  }
+
+  /**
+   * Storage for low 16 bits of ordinals in a chunk.
+   */
+  private static abstract class Container {
+    abstract boolean contains(int low);
+
+    /** @return next present low bits value which is greater or equal to {@code from}, or -1 */
+    abstract int next(int from);
+
+    abstract int last();
+
+    static Container create(int[] ordinals, int from, int to) {
+      int count = to - from;
+      int runs = 1;
+      for (int i = from + 1; i < to; i++) {
+        if (ordinals[i] != ordinals[i - 1] + 1) {
+          runs++;
+        }
+      }
+      int arrayBytes = count * 2;
+      int runBytes = runs * 4;
+      if (runBytes < arrayBytes && runBytes < BITMAP_BYTES) {
+        return RunContainer.create(ordinals, from, to, runs);
+      }
+      if (arrayBytes <= BITMAP_BYTES) {
+        return ArrayContainer.create(ordinals, from, to);
+      }
+      return BitmapContainer.create(ordinals, from, to);
+    }
+  }
+
+  private static final class ArrayContainer extends Container {
+    private final char[] values;
+
+    ArrayContainer(char[] values) {
+      this.values = values;
+    }
+
+    static ArrayContainer create(int[] ordinals, int from, int to) {
+      char[] values = new char[to - from];
+      for (int i = from; i < to; i++) {
+        values[i - from] = (char) (ordinals[i] & LOW_MASK);
+      }
+      return new ArrayContainer(values);
+    }
+
+    @Override
+    boolean contains(int low) {
+      return Arrays.binarySearch(values, (char) low) >= 0;
+    }
+
+    @Override
+    int next(int from) {
+      int i = Arrays.binarySearch(values, (char) from);
+      if (i < 0) {
+        i = -i - 1;
+      }
+      return i < values.length ? values[i] : -1;
+    }
+
+    @Override
+    int last() {
+      return values[values.length - 1];
+    }
+
+    @Override
+    public boolean equals(@Nullable Object another) {
+      return another instanceof ArrayContainer
+          && Arrays.equals(values, ((ArrayContainer) another).values);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(values);
+    }
+  }
+
+  private static final class BitmapContainer extends Container {
+    private final long[] words;
+
+    BitmapContainer(long[] words) {
+      this.words = words;
+    }
+
+    static BitmapContainer create(int[] ordinals, int from, int to) {
+      long[] words = new long[BITMAP_WORDS];
+      for (int i = from; i < to; i++) {
+        int low = ordinals[i] & LOW_MASK;
+        words[low >>> 6] |= 1L << low;
+      }
+      return new BitmapContainer(words);
+    }
+
+    @Override
+    boolean contains(int low) {
+      return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int next(int from) {
+      int wordIndex = from >>> 6;
+      long word = words[wordIndex] & (-1L << from);
+      while (word == 0) {
+        if (++wordIndex == words.length) {
+          return -1;
+        }
+        word = words[wordIndex];
+      }
+      return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    int last() {
+      int wordIndex = words.length - 1;
+      while (words[wordIndex] == 0) {
+        wordIndex--;
+      }
+      return (wordIndex << 6) + Long.SIZE - 1 - Long.numberOfLeadingZeros(words[wordIndex]);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object another) {
+      return another instanceof BitmapContainer
+          && Arrays.equals(words, ((BitmapContainer) another).words);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(words);
+    }
+  }
+
+  private static final class RunContainer extends Container {
+    /** Run starts, sorted. */
+    private final char[] starts;
+    /** Run lengths minus one, so that full chunk fits. */
+    private final char[] lengths;
+
+    RunContainer(char[] starts, char[] lengths) {
+      this.starts = starts;
+      this.lengths = lengths;
+    }
+
+    static RunContainer create(int[] ordinals, int from, int to, int runs) {
+      char[] starts = new char[runs];
+      char[] lengths = new char[runs];
+      int r = 0;
+      int start = ordinals[from];
+      for (int i = from + 1; i <= to; i++) {
+        if (i == to || ordinals[i] != ordinals[i - 1] + 1) {
+          starts[r] = (char) (start & LOW_MASK);
+          lengths[r] = (char) (ordinals[i - 1] - start);
+          r++;
+          if (i < to) {
+            start = ordinals[i];
+          }
+        }
+      }
+      return new RunContainer(starts, lengths);
+    }
+
+    /** @return index of the run which starts at or before {@code low}, or -1 */
+    private int runAtOrBefore(int low) {
+      int i = Arrays.binarySearch(starts, (char) low);
+      return i >= 0 ? i : -i - 2;
+    }
+
+    @Override
+    boolean contains(int low) {
+      int r = runAtOrBefore(low);
+      return r >= 0 && low - starts[r] <= lengths[r];
+    }
+
+    @Override
+    int next(int from) {
+      int r = runAtOrBefore(from);
+      if (r >= 0 && from - starts[r] <= lengths[r]) {
+        return from;
+      }
+      r++;
+      return r < starts.length ? starts[r] : -1;
+    }
+
+    @Override
+    int last() {
+      int r = starts.length - 1;
+      return starts[r] + lengths[r];
+    }
+
+    @Override
+    public boolean equals(@Nullable Object another) {
+      return another instanceof RunContainer
+          && Arrays.equals(starts, ((RunContainer) another).starts)
+          && Arrays.equals(lengths, ((RunContainer) another).lengths);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(starts) * 31 + Arrays.hashCode(lengths);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.base.MoreObjects;
+import java.util.Arrays;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable map from {@link OrdinalValue} keys to primitive {@code double} values. Values are
+ * stored unboxed in dense array indexed by {@link OrdinalValue#ordinal() ordinal}, while key
+ * presence is tracked by {@link ImmutableOrdinalSet} bit vector.
+ * @see ImmutableOrdinalMap
+ * @param <K> key type
+ */
+public final class ImmutableOrdinalDoubleMap<K extends OrdinalValue<K>> {
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final ImmutableOrdinalDoubleMap<?> EMPTY_MAP =
+      new ImmutableOrdinalDoubleMap(ImmutableOrdinalSet.of(), new double[0]);
+
+  private final ImmutableOrdinalSet<K> keys;
+  private final double[] values;
+
+  private ImmutableOrdinalDoubleMap(ImmutableOrdinalSet<K> keys, double[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Returns singleton empty immutable ordinal map
+   * @param <K> key type
+   * @return empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K extends OrdinalValue<K>> ImmutableOrdinalDoubleMap<K> of() {
+    // safe unchecked: will contain no entries
+    return (ImmutableOrdinalDoubleMap<K>) EMPTY_MAP;
+  }
+
+  /**
+   * Creates immutable ordinal map from entries of other map, values will be unboxed.
+   * @param <K> key type
+   * @param map the map to copy, no null keys or values allowed
+   * @return the immutable ordinal map
+   */
+  public static <K extends OrdinalValue<K>> ImmutableOrdinalDoubleMap<K> copyOf(Map<? extends K, ? extends Double> map) {
+    return ImmutableOrdinalDoubleMap.<K>builder().putAll(map).build();
+  }
+
+  /**
+   * Set of keys, iterated by ordinal.
+   * @return immutable ordinal set of keys
+   */
+  public ImmutableOrdinalSet<K> keySet() {
+    return keys;
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  public boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  public boolean containsKey(@Nullable Object key) {
+    return keys.contains(key);
+  }
+
+  /**
+   * Gets value by key without boxing.
+   * @param key the key
+   * @param defaultValue value to return if there is no such key
+   * @return the value for the key or {@code defaultValue} if key is absent
+   */
+  public double get(@Nullable Object key, double defaultValue) {
+    if (keys.contains(key)) {
+      return values[((OrdinalValue<?>) key).ordinal()];
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object another) {
+    if (this == another) {
+      return true;
+    }
+    if (another instanceof ImmutableOrdinalDoubleMap<?>) {
+      ImmutableOrdinalDoubleMap<?> other = (ImmutableOrdinalDoubleMap<?>) another;
+      return keys.equals(other.keys)
+          && Arrays.equals(values, other.values);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return keys.hashCode() * 31 + Arrays.hashCode(values);
+  }
+
+  @Override
+  public String toString() {
+    MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper("ImmutableOrdinalDoubleMap");
+    for (K k : keys) {
+      helper.add(String.valueOf(k), values[k.ordinal()]);
+    }
+    return helper.toString();
+  }
+
+  /**
+   * Build instances of {@link ImmutableOrdinalDoubleMap}.
+   * @param <K> key type
+   * @return builder
+   */
+  public static <K extends OrdinalValue<K>> Builder<K> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Build instances of {@link ImmutableOrdinalDoubleMap}.
+   * @param <K> key type
+   */
+  public static final class Builder<K extends OrdinalValue<K>> {
+    private final OrdinalKeys<K> keys = new OrdinalKeys<>();
+    private double[] values = new double[4];
+
+    Builder() {}
+
+    /**
+     * Puts entry, duplicate keys are not allowed.
+     * @param key the key
+     * @param value the value
+     * @return {@code this} builder for chained invocation
+     */
+    public Builder<K> put(K key, double value) {
+      int index = keys.add(key);
+      if (index == values.length) {
+        values = Arrays.copyOf(values, index << 1);
+      }
+      values[index] = value;
+      return this;
+    }
+
+    /**
+     * Puts all entries from map, values will be unboxed. Duplicate keys are not allowed.
+     * @param map the map, no null keys or values allowed
+     * @return {@code this} builder for chained invocation
+     */
+    public Builder<K> putAll(Map<? extends K, ? extends Double> map) {
+      for (Map.Entry<? extends K, ? extends Double> e : map.entrySet()) {
+        put(e.getKey(), e.getValue());
+      }
+      return this;
+    }
+
+    /**
+     * Builds instances of {@link ImmutableOrdinalDoubleMap} using all put entries.
+     * @return immutable ordinal map
+     * @throws IllegalArgumentException if there are duplicate keys or keys from different domains
+     */
+    public ImmutableOrdinalDoubleMap<K> build() {
+      if (keys.isEmpty()) {
+        return of();
+      }
+      double[] array = new double[keys.arrayLength()];
+      for (int i = 0; i < keys.size(); i++) {
+        array[keys.ordinalAt(i)] = values[i];
+      }
+      return new ImmutableOrdinalDoubleMap<>(keys.toSet(), array);
+    }
+  }
+}
@@ -0,0 +1,231 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Immutable map which take advantage of keys being an {@link OrdinalValue}s. Values are stored in
+ * dense array indexed by {@link OrdinalValue#ordinal() ordinal}, while key presence is tracked by
+ * {@link ImmutableOrdinalSet} bit vector, so {@link #get(Object)} and {@link #containsKey(Object)}
+ * are O(1) and do no hashing. Iteration order is by key ordinal. Null keys and values are not
+ * allowed.
+ * @see ImmutableOrdinalSet
+ * @see ImmutableOrdinalIntMap
+ * @see ImmutableOrdinalLongMap
+ * @see ImmutableOrdinalDoubleMap
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class ImmutableOrdinalMap<K extends OrdinalValue<K>, V> extends AbstractMap<K, V> {
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final ImmutableOrdinalMap<?, ?> EMPTY_MAP =
+      new ImmutableOrdinalMap(ImmutableOrdinalSet.of(), new Object[0]);
+
+  private final ImmutableOrdinalSet<K> keys;
+  private final Object[] values;
+  private @Nullable Set<Entry<K, V>> entrySet;
+
+  private ImmutableOrdinalMap(ImmutableOrdinalSet<K> keys, Object[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Returns singleton empty immutable ordinal map
+   * @param <K> key type
+   * @param <V> value type
+   * @return empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K extends OrdinalValue<K>, V> ImmutableOrdinalMap<K, V> of() {
+    // safe unchecked: will contain no entries
+    return (ImmutableOrdinalMap<K, V>) EMPTY_MAP;
+  }
+
+  /**
+   * Creates immutable ordinal map from entries of other map.
+   * All keys expected to have same {@link OrdinalValue#domain()},
+   * otherwise exception will be thrown.
+   * @param <K> key type
+   * @param <V> value type
+   * @param map the map to copy, no null keys or values allowed
+   * @return the immutable ordinal map
+   */
+  @SuppressWarnings("unchecked")
+  // Safe unchecked, keys and values are defined to be of K and V or subtypes
+  // which is allowed for immutable collection
+  public static <K extends OrdinalValue<K>, V> ImmutableOrdinalMap<K, V> copyOf(
+      Map<? extends K, ? extends V> map) {
+    if (map instanceof ImmutableOrdinalMap<?, ?>) {
+      return (ImmutableOrdinalMap<K, V>) map;
+    }
+    Builder<K, V> builder = builder();
+    for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+      builder.put(e.getKey(), e.getValue());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Set of keys, iterated by ordinal.
+   * @return immutable ordinal set of keys
+   */
+  @Override
+  public ImmutableOrdinalSet<K> keySet() {
+    return keys;
+  }
+
+  @Override
+  public int size() {
+    return keys.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object key) {
+    return get(key) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public @Nullable V get(@Nullable Object key) {
+    if (key instanceof OrdinalValue<?>) {
+      OrdinalValue<?> value = (OrdinalValue<?>) key;
+      int ordinal = value.ordinal();
+      if (ordinal < values.length) {
+        // Safe unchecked: only values of type V are stored
+        @Nullable V v = (V) values[ordinal];
+        if (v != null && value.domain().equals(keys.domainOrNull())) {
+          return v;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    @Nullable Set<Entry<K, V>> set = entrySet;
+    if (set == null) {
+      set = new EntrySet();
+      entrySet = set;
+    }
+    return set;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<K, V>> {
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+      final Iterator<K> keyIterator = keys.iterator();
+      return new UnmodifiableIterator<Entry<K, V>>() {
+        @Override
+        public boolean hasNext() {
+          return keyIterator.hasNext();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Entry<K, V> next() {
+          K key = keyIterator.next();
+          // Safe unchecked: only values of type V are stored
+          return Maps.immutableEntry(key, (V) values[key.ordinal()]);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return keys.size();
+    }
+  }
+
+  /**
+   * Build instances of {@link ImmutableOrdinalMap}.
+   * @param <K> key type
+   * @param <V> value type
+   * @return builder
+   */
+  public static <K extends OrdinalValue<K>, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Build instances of {@link ImmutableOrdinalMap}.
+   * @param <K> key type
+   * @param <V> value type
+   */
+  public static final class Builder<K extends OrdinalValue<K>, V> {
+    private final OrdinalKeys<K> keys = new OrdinalKeys<>();
+    private final List<V> values = Lists.newArrayListWithExpectedSize(4);
+
+    Builder() {}
+
+    /**
+     * Puts entry, duplicate keys are not allowed.
+     * @param key the key
+     * @param value the value
+     * @return {@code this} builder for chained invocation
+     */
+    public Builder<K, V> put(K key, V value) {
+      keys.add(key);
+      values.add(checkNotNull(value));
+      return this;
+    }
+
+    /**
+     * Puts all entries from map, duplicate keys are not allowed.
+     * @param map the map
+     * @return {@code this} builder for chained invocation
+     */
+    public Builder<K, V> putAll(Map<? extends K, ? extends V> map) {
+      for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+        put(e.getKey(), e.getValue());
+      }
+      return this;
+    }
+
+    /**
+     * Builds instances of {@link ImmutableOrdinalMap} using all put entries.
+     * @return immutable ordinal map
+     * @throws IllegalArgumentException if there are duplicate keys or keys from different domains
+     */
+    public ImmutableOrdinalMap<K, V> build() {
+      if (keys.isEmpty()) {
+        return of();
+      }
+      Object[] array = new Object[keys.arrayLength()];
+      for (int i = 0; i < keys.size(); i++) {
+        array[keys.ordinalAt(i)] = values.get(i);
+      }
+      return new ImmutableOrdinalMap<>(keys.toSet(), array);
+    }
+  }
+}
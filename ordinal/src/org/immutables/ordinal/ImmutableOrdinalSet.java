@@ -15,21 +15,29 @@
  */
 package org.immutables.ordinal;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ForwardingSet;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 import static com.google.common.base.Preconditions.*;
 
 /**
  * Immutable set that take advantage of elements being an {@link OrdinalValue}s to provide
  * compact storage and efficient {@link Set#contains(Object)} and
  * {@link Set#containsAll(Collection)} operations.
+ * <p>
+ * Sets are stored as plain bit vectors, unless elements are sparse relative to the highest
+ * ordinal, in which case compressed chunked representation is chosen automatically.
  * @see OrdinalValue
  * @see OrdinalDomain
  * @see BitSet BitSet for similar internal implementation
@@ -38,6 +46,14 @@ import static com.google.common.base.Preconditions.*;
 public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
     extends ForwardingSet<E> {
 
+  private static final int BITS_PER_WORD = Longs.BYTES * Byte.SIZE;
+  private static final int POWER_OF_TWO_WORD_BITS = 6;
+  private static final long[] NO_WORDS = new long[0];
+  /**
+   * Vectors up to this number of words are never compressed.
+   */
+  private static final int COMPRESSION_MIN_WORDS = 64;
+
   ImmutableOrdinalSet() {}
 
   @SuppressWarnings("rawtypes")
@@ -66,14 +82,13 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
   @SafeVarargs
   public static <E extends OrdinalValue<E>> ImmutableOrdinalSet<E> of(
       E first, E... rest) {
-    OrdinalDomain<E> domain = first.domain();
     if (rest.length == 0) {
       return new SingletonImmutableOrdinalSet<>(first);
     }
     OrdinalValue<?>[] array = new OrdinalValue<?>[1 + rest.length];
     array[0] = first;
     System.arraycopy(rest, 0, array, 1, rest.length);
-    return new RegularImmutableOrdinalSet<>(domain, array);
+    return constructFromArray(array);
   }
 
   /**
@@ -116,10 +131,26 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
       // Safe unchecked as element is known to be of type E
       return new SingletonImmutableOrdinalSet<>((E) array[0]);
     default:
-      return new RegularImmutableOrdinalSet<>(((E) array[0]).domain(), array);
+      OrdinalDomain<E> domain = ((E) array[0]).domain();
+      int maxOrdinal = 0;
+      for (OrdinalValue<?> e : array) {
+        maxOrdinal = Math.max(maxOrdinal, e.ordinal());
+      }
+      if (preferCompressed((maxOrdinal >>> POWER_OF_TWO_WORD_BITS) + 1, array.length)) {
+        return CompressedImmutableOrdinalSet.fromElements(domain, array);
+      }
+      return new RegularImmutableOrdinalSet<>(domain, array);
     }
   }
 
+  /**
+   * Compressed representation is used when there's less than one element per word of bit vector
+   * on average, so most of the vector would be zero words.
+   */
+  private static boolean preferCompressed(int vectorWords, int size) {
+    return vectorWords > COMPRESSION_MIN_WORDS && vectorWords > size;
+  }
+
   /**
    * Will throw an exception and leave the collection unmodified.
    * @throws UnsupportedOperationException always
@@ -215,6 +246,27 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
 
     @Override
     public void incrementCounters(int[] countersByOrdinal) {}
+
+    @Override
+    @Nullable
+    OrdinalDomain<E> domainOrNull() {
+      return null;
+    }
+
+    @Override
+    long[] words() {
+      return NO_WORDS;
+    }
+
+    @Override
+    boolean containsOrdinal(int ordinal) {
+      return false;
+    }
+
+    @Override
+    int nextOrdinal(int from) {
+      return -1;
+    }
   }
 
   private static class SingletonImmutableOrdinalSet<E extends OrdinalValue<E>>
@@ -258,19 +310,46 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
       return false;
     }
 
+    @Override
+    public Iterator<E> iterator() {
+      return Iterators.singletonIterator(element);
+    }
+
     @Override
     public void incrementCounters(int[] counters) {
       counters[element.ordinal()]++;
     }
+
+    @Override
+    OrdinalDomain<E> domainOrNull() {
+      return element.domain();
+    }
+
+    @Override
+    long[] words() {
+      int ordinal = element.ordinal();
+      long[] vector = new long[(ordinal >>> POWER_OF_TWO_WORD_BITS) + 1];
+      vector[vector.length - 1] = 1L << ordinal;
+      return vector;
+    }
+
+    @Override
+    boolean containsOrdinal(int ordinal) {
+      return element.ordinal() == ordinal;
+    }
+
+    @Override
+    int nextOrdinal(int from) {
+      int ordinal = element.ordinal();
+      return ordinal >= from ? ordinal : -1;
+    }
   }
 
   private static class RegularImmutableOrdinalSet<E extends OrdinalValue<E>> extends ImmutableOrdinalSet<E> {
-    private static final int BITS_PER_WORD = Longs.BYTES * Byte.SIZE;
-    private static final int POWER_OF_TWO_WORD_BITS = 6;
-
     private final OrdinalDomain<E> domain;
     private final long[] vector;
     private final int size;
+    private int hashCode;
 
     RegularImmutableOrdinalSet(OrdinalDomain<E> domain, OrdinalValue<?>[] elements) {
       int maxOrdinal = 0;
@@ -286,6 +365,15 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
       fillVector(elements);
     }
 
+    /**
+     * Takes ownership of already computed vector, trailing word is expected to be non-zero.
+     */
+    RegularImmutableOrdinalSet(OrdinalDomain<E> domain, long[] vector, int size) {
+      this.domain = domain;
+      this.vector = vector;
+      this.size = size;
+    }
+
     private void fillVector(OrdinalValue<?>[] elements) {
       for (OrdinalValue<?> e : elements) {
         int ordinal = e.ordinal();
@@ -301,19 +389,79 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
 
     @Override
     protected Set<E> delegate() {
-      ImmutableSet.Builder<E> builder = ImmutableSet.builder();
+      return ImmutableSet.copyOf(iterator());
+    }
 
-      for (int i = 0; i < vector.length; i++) {
-        long word = vector[i];
-        int wordOrdinal = i * BITS_PER_WORD;
-        for (int bitIndex = 0; bitIndex < BITS_PER_WORD; bitIndex++) {
-          if (((word >>> bitIndex) & 1) != 0) {
-            builder.add(domain.get(wordOrdinal + bitIndex));
+    @Override
+    public Iterator<E> iterator() {
+      final long[] vector = this.vector;
+      return new AbstractIterator<E>() {
+        private int wordIndex;
+        private long word = vector[0];
+
+        @Override
+        protected E computeNext() {
+          while (word == 0) {
+            if (++wordIndex == vector.length) {
+              return endOfData();
+            }
+            word = vector[wordIndex];
           }
+          int bitIndex = Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+          return domain.get((wordIndex << POWER_OF_TWO_WORD_BITS) + bitIndex);
         }
+      };
+    }
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+      if (object == this) {
+        return true;
+      }
+      if (object instanceof RegularImmutableOrdinalSet<?>) {
+        RegularImmutableOrdinalSet<?> otherSet = (RegularImmutableOrdinalSet<?>) object;
+        return size == otherSet.size
+            && domain.equals(otherSet.domain)
+            && Arrays.equals(vector, otherSet.vector);
+      }
+      return standardEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+      // Racy single-check is fine: computation is idempotent and int writes are atomic
+      int h = hashCode;
+      if (h == 0) {
+        h = standardHashCode();
+        hashCode = h;
       }
+      return h;
+    }
+
+    @Override
+    public String toString() {
+      return standardToString();
+    }
+
+    @Override
+    public Object[] toArray() {
+      return standardToArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] array) {
+      return standardToArray(array);
+    }
+
+    @Override
+    OrdinalDomain<E> domainOrNull() {
+      return domain;
+    }
 
-      return builder.build();
+    @Override
+    long[] words() {
+      return vector;
     }
 
     @Override
@@ -327,12 +475,29 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
       return false;
     }
 
-    private boolean containsOrdinal(int ordinal) {
+    @Override
+    boolean containsOrdinal(int ordinal) {
       int wordIndex = ordinal >>> POWER_OF_TWO_WORD_BITS;
       int bitIndex = ordinal - (wordIndex << POWER_OF_TWO_WORD_BITS);
       return (wordIndex < vector.length) && ((vector[wordIndex] >>> bitIndex) & 1) != 0;
     }
 
+    @Override
+    int nextOrdinal(int from) {
+      int wordIndex = from >>> POWER_OF_TWO_WORD_BITS;
+      if (wordIndex >= vector.length) {
+        return -1;
+      }
+      long word = vector[wordIndex] & (-1L << from);
+      while (word == 0) {
+        if (++wordIndex == vector.length) {
+          return -1;
+        }
+        word = vector[wordIndex];
+      }
+      return (wordIndex << POWER_OF_TWO_WORD_BITS) + Long.numberOfTrailingZeros(word);
+    }
+
     private boolean containsAllOrdinals(RegularImmutableOrdinalSet<?> ordinalSet) {
       long[] otherVector = ordinalSet.vector;
       long[] vector = this.vector;
@@ -382,6 +547,10 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
         RegularImmutableOrdinalSet<?> otherSet = (RegularImmutableOrdinalSet<?>) collection;
         return otherSet.domain.equals(domain) && containsAnyOrdinal(otherSet);
       }
+      if (collection instanceof CompressedImmutableOrdinalSet<?>) {
+        ImmutableOrdinalSet<?> otherSet = (ImmutableOrdinalSet<?>) collection;
+        return domain.equals(otherSet.domainOrNull()) && containsAnyOrdinalOf(otherSet);
+      }
       return super.containsAny(collection);
     }
 
@@ -398,6 +567,12 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
         RegularImmutableOrdinalSet<?> otherSet = (RegularImmutableOrdinalSet<?>) collection;
         return otherSet.domain.equals(domain) && containsAllOrdinals(otherSet);
       }
+      if (collection instanceof CompressedImmutableOrdinalSet<?>) {
+        ImmutableOrdinalSet<?> otherSet = (ImmutableOrdinalSet<?>) collection;
+        return domain.equals(otherSet.domainOrNull())
+            && size <= this.size
+            && containsAllOrdinalsOf(otherSet);
+      }
       return super.containsAll(collection);
     }
 
@@ -445,6 +620,392 @@ public abstract class ImmutableOrdinalSet<E extends OrdinalValue<E>>
    */
   public abstract void incrementCounters(int[] counters);
 
+  /**
+   * Returns set which contains elements which are present in this set or in other set
+   * (or in both). Computed word-by-word on bit vectors, without materialization of elements.
+   * @param other other set of the same domain
+   * @return union set
+   * @throws IllegalArgumentException if non-empty sets have different domains
+   */
+  public final ImmutableOrdinalSet<E> union(ImmutableOrdinalSet<E> other) {
+    if (other == this || other.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      return other;
+    }
+    OrdinalDomain<E> domain = commonDomain(other);
+    if (other.size() == 1) {
+      return withOrdinalOf(domain, other, true);
+    }
+    if (size() == 1) {
+      return other.withOrdinalOf(domain, this, true);
+    }
+    if (isCompressed() || other.isCompressed()) {
+      return merge(domain, other, true, true, true);
+    }
+    long[] longer = words();
+    long[] shorter = other.words();
+    if (longer.length < shorter.length) {
+      long[] t = longer;
+      longer = shorter;
+      shorter = t;
+    }
+    long[] result = longer.clone();
+    for (int i = 0; i < shorter.length; i++) {
+      result[i] |= shorter[i];
+    }
+    return fromVector(domain, result);
+  }
+
+  /**
+   * Returns set which contains only elements which are present in both this and other set.
+   * Computed word-by-word on bit vectors, without materialization of elements.
+   * @param other other set of the same domain
+   * @return intersection set
+   * @throws IllegalArgumentException if non-empty sets have different domains
+   */
+  public final ImmutableOrdinalSet<E> intersection(ImmutableOrdinalSet<E> other) {
+    if (other == this) {
+      return this;
+    }
+    if (isEmpty() || other.isEmpty()) {
+      return of();
+    }
+    OrdinalDomain<E> domain = commonDomain(other);
+    if (size() == 1) {
+      return other.containsAll(this) ? this : ImmutableOrdinalSet.<E>of();
+    }
+    if (other.size() == 1) {
+      return containsAll(other) ? other : ImmutableOrdinalSet.<E>of();
+    }
+    if (isCompressed() || other.isCompressed()) {
+      return merge(domain, other, false, false, true);
+    }
+    long[] a = words();
+    long[] b = other.words();
+    long[] result = new long[Math.min(a.length, b.length)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = a[i] & b[i];
+    }
+    return fromVector(domain, result);
+  }
+
+  /**
+   * Returns set which contains elements of this set which are not present in other set.
+   * Computed word-by-word on bit vectors, without materialization of elements.
+   * @param other other set of the same domain
+   * @return difference set
+   * @throws IllegalArgumentException if non-empty sets have different domains
+   */
+  public final ImmutableOrdinalSet<E> difference(ImmutableOrdinalSet<E> other) {
+    if (other == this) {
+      return of();
+    }
+    if (isEmpty() || other.isEmpty()) {
+      return this;
+    }
+    OrdinalDomain<E> domain = commonDomain(other);
+    if (size() == 1) {
+      return other.containsAll(this) ? ImmutableOrdinalSet.<E>of() : this;
+    }
+    if (other.size() == 1) {
+      return withOrdinalOf(domain, other, false);
+    }
+    if (isCompressed() || other.isCompressed()) {
+      return merge(domain, other, true, false, false);
+    }
+    long[] a = words();
+    long[] b = other.words();
+    long[] result = a.clone();
+    for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+      result[i] &= ~b[i];
+    }
+    return fromVector(domain, result);
+  }
+
+  /**
+   * Returns set which contains elements which are present in exactly one of this or other set
+   * (symmetric difference). Computed word-by-word on bit vectors, without materialization of
+   * elements.
+   * @param other other set of the same domain
+   * @return symmetric difference set
+   * @throws IllegalArgumentException if non-empty sets have different domains
+   */
+  public final ImmutableOrdinalSet<E> xor(ImmutableOrdinalSet<E> other) {
+    if (other == this) {
+      return of();
+    }
+    if (other.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      return other;
+    }
+    OrdinalDomain<E> domain = commonDomain(other);
+    if (other.size() == 1) {
+      return withOrdinalOf(domain, other, !containsOrdinal(other.nextOrdinal(0)));
+    }
+    if (size() == 1) {
+      return other.withOrdinalOf(domain, this, !other.containsOrdinal(nextOrdinal(0)));
+    }
+    if (isCompressed() || other.isCompressed()) {
+      return merge(domain, other, true, true, false);
+    }
+    long[] longer = words();
+    long[] shorter = other.words();
+    if (longer.length < shorter.length) {
+      long[] t = longer;
+      longer = shorter;
+      shorter = t;
+    }
+    long[] result = longer.clone();
+    for (int i = 0; i < shorter.length; i++) {
+      result[i] ^= shorter[i];
+    }
+    return fromVector(domain, result);
+  }
+
+  /**
+   * Size of the {@link #union(ImmutableOrdinalSet) union} computed without constructing it.
+   * @param other other set of the same domain
+   * @return number of elements in union
+   */
+  public final int cardinalityOfUnion(ImmutableOrdinalSet<E> other) {
+    return size() + other.size() - cardinalityOfIntersection(other);
+  }
+
+  /**
+   * Size of the {@link #intersection(ImmutableOrdinalSet) intersection} computed without
+   * constructing it.
+   * @param other other set of the same domain
+   * @return number of elements in intersection
+   */
+  public final int cardinalityOfIntersection(ImmutableOrdinalSet<E> other) {
+    if (other == this) {
+      return size();
+    }
+    if (isEmpty() || other.isEmpty()) {
+      return 0;
+    }
+    commonDomain(other);
+    if (size() == 1) {
+      return other.containsAll(this) ? 1 : 0;
+    }
+    if (other.size() == 1) {
+      return containsAll(other) ? 1 : 0;
+    }
+    if (isCompressed() || other.isCompressed()) {
+      int count = 0;
+      for (int x = nextOrdinal(0), y = other.nextOrdinal(0); x >= 0 && y >= 0;) {
+        if (x < y) {
+          x = nextOrdinal(y);
+        } else if (y < x) {
+          y = other.nextOrdinal(x);
+        } else {
+          count++;
+          x = nextOrdinal(x + 1);
+          y = other.nextOrdinal(y + 1);
+        }
+      }
+      return count;
+    }
+    long[] a = words();
+    long[] b = other.words();
+    int count = 0;
+    for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+      count += Long.bitCount(a[i] & b[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Size of the {@link #difference(ImmutableOrdinalSet) difference} computed without
+   * constructing it.
+   * @param other other set of the same domain
+   * @return number of elements in difference
+   */
+  public final int cardinalityOfDifference(ImmutableOrdinalSet<E> other) {
+    return size() - cardinalityOfIntersection(other);
+  }
+
+  /**
+   * Size of the {@link #xor(ImmutableOrdinalSet) symmetric difference} computed without
+   * constructing it.
+   * @param other other set of the same domain
+   * @return number of elements in symmetric difference
+   */
+  public final int cardinalityOfXor(ImmutableOrdinalSet<E> other) {
+    return size() + other.size() - 2 * cardinalityOfIntersection(other);
+  }
+
+  /**
+   * Domain of elements, {@code null} only for empty set.
+   */
+  @Nullable
+  abstract OrdinalDomain<E> domainOrNull();
+
+  /**
+   * Bit vector words by ordinal, must not be modified by caller.
+   */
+  abstract long[] words();
+
+  abstract boolean containsOrdinal(int ordinal);
+
+  /**
+   * @param from ordinal to start search from, inclusive
+   * @return smallest contained ordinal which is greater or equal to {@code from} or {@code -1}
+   */
+  abstract int nextOrdinal(int from);
+
+  private boolean isCompressed() {
+    return this instanceof CompressedImmutableOrdinalSet<?>;
+  }
+
+  final boolean containsAllOrdinalsOf(ImmutableOrdinalSet<?> other) {
+    for (int ordinal = other.nextOrdinal(0); ordinal >= 0; ordinal = other.nextOrdinal(ordinal + 1)) {
+      if (!containsOrdinal(ordinal)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  final boolean containsAnyOrdinalOf(ImmutableOrdinalSet<?> other) {
+    for (int x = nextOrdinal(0), y = other.nextOrdinal(0); x >= 0 && y >= 0;) {
+      if (x < y) {
+        x = nextOrdinal(y);
+      } else if (y < x) {
+        y = other.nextOrdinal(x);
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Copy of this set with the only element of singleton set included or excluded. Flips single
+   * bit instead of combining with bit vector of singleton, which is sized to its ordinal.
+   */
+  private ImmutableOrdinalSet<E> withOrdinalOf(
+      OrdinalDomain<E> domain,
+      ImmutableOrdinalSet<E> singleton,
+      boolean include) {
+    int ordinal = singleton.nextOrdinal(0);
+    if (containsOrdinal(ordinal) == include) {
+      return this;
+    }
+    if (size() == 1 || isCompressed()) {
+      return merge(domain, singleton, true, include, include);
+    }
+    long[] words = words();
+    int wordIndex = ordinal >>> POWER_OF_TWO_WORD_BITS;
+    long[] vector = Arrays.copyOf(words, Math.max(words.length, wordIndex + 1));
+    vector[wordIndex] ^= 1L << ordinal;
+    return fromVector(domain, vector);
+  }
+
+  /**
+   * Merges sorted ordinals of both sets, used when either of the sets is compressed so
+   * that work is proportional to the number of elements rather than to the highest ordinal.
+   */
+  private ImmutableOrdinalSet<E> merge(
+      OrdinalDomain<E> domain,
+      ImmutableOrdinalSet<E> other,
+      boolean keepOnlyThis,
+      boolean keepOnlyOther,
+      boolean keepBoth) {
+    int[] ordinals = new int[size() + other.size()];
+    int count = 0;
+    int x = nextOrdinal(0);
+    int y = other.nextOrdinal(0);
+    while (x >= 0 || y >= 0) {
+      if (y < 0 || (x >= 0 && x < y)) {
+        if (keepOnlyThis) {
+          ordinals[count++] = x;
+        }
+        x = nextOrdinal(x + 1);
+      } else if (x < 0 || y < x) {
+        if (keepOnlyOther) {
+          ordinals[count++] = y;
+        }
+        y = other.nextOrdinal(y + 1);
+      } else {
+        if (keepBoth) {
+          ordinals[count++] = x;
+        }
+        x = nextOrdinal(x + 1);
+        y = other.nextOrdinal(y + 1);
+      }
+    }
+    return fromOrdinals(domain, ordinals, count);
+  }
+
+  private static <E extends OrdinalValue<E>> ImmutableOrdinalSet<E> fromOrdinals(
+      OrdinalDomain<E> domain,
+      int[] ordinals,
+      int count) {
+    switch (count) {
+    case 0:
+      return of();
+    case 1:
+      return new SingletonImmutableOrdinalSet<>(domain.get(ordinals[0]));
+    default:
+      int words = (ordinals[count - 1] >>> POWER_OF_TWO_WORD_BITS) + 1;
+      if (preferCompressed(words, count)) {
+        return CompressedImmutableOrdinalSet.fromOrdinals(domain, ordinals, count);
+      }
+      long[] vector = new long[words];
+      for (int i = 0; i < count; i++) {
+        int ordinal = ordinals[i];
+        vector[ordinal >>> POWER_OF_TWO_WORD_BITS] |= 1L << ordinal;
+      }
+      return new RegularImmutableOrdinalSet<>(domain, vector, count);
+    }
+  }
+
+  private OrdinalDomain<E> commonDomain(ImmutableOrdinalSet<E> other) {
+    OrdinalDomain<E> domain = domainOrNull();
+    OrdinalDomain<E> otherDomain = other.domainOrNull();
+    checkArgument(domain != null && domain.equals(otherDomain),
+        "Sets has different domains %s and %s", domain, otherDomain);
+    return domain;
+  }
+
+  private static <E extends OrdinalValue<E>> ImmutableOrdinalSet<E> fromVector(OrdinalDomain<E> domain, long[] vector) {
+    int size = 0;
+    int length = 0;
+    for (int i = 0; i < vector.length; i++) {
+      long word = vector[i];
+      if (word != 0) {
+        size += Long.bitCount(word);
+        length = i + 1;
+      }
+    }
+    switch (size) {
+    case 0:
+      return of();
+    case 1:
+      int wordIndex = length - 1;
+      int ordinal = (wordIndex << POWER_OF_TWO_WORD_BITS) + Long.numberOfTrailingZeros(vector[wordIndex]);
+      return new SingletonImmutableOrdinalSet<>(domain.get(ordinal));
+    default:
+      if (preferCompressed(length, size)) {
+        int[] ordinals = new int[size];
+        for (int i = 0, n = 0; i < length; i++) {
+          for (long word = vector[i]; word != 0; word &= word - 1) {
+            ordinals[n++] = (i << POWER_OF_TWO_WORD_BITS) + Long.numberOfTrailingZeros(word);
+          }
+        }
+        return CompressedImmutableOrdinalSet.fromOrdinals(domain, ordinals, size);
+      }
+      return new RegularImmutableOrdinalSet<>(domain,
+          length == vector.length ? vector : Arrays.copyOf(vector, length),
+          size);
+    }
+  }
+
   public boolean containsAny(Collection<?> collection) {
     for (Object object : collection) {
       if (contains(object)) {
@@ -15,49 +15,290 @@
  */
 package org.immutables.ordinal;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.primitives.Ints;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
+import static com.google.common.base.Preconditions.*;
 
+/**
+ * Ordinal domain which assigns ordinals to values in order of interning. Lookup of already interned
+ * values do not take any locks, interning of new values takes short exclusive section which only
+ * appends element to the chunked ordinal table, so neither lookup nor insertion copy already
+ * interned values.
+ * <p>
+ * Ordinal-to-value table could be {@link #writeSnapshot(File, Codec) written} to a file and
+ * {@link #restoreSnapshot(File, Codec) restored} with the same ordinals, so that persisted
+ * ordinal-based data, like {@link ImmutableOrdinalSet} bit vectors, stays valid across restarts.
+ * @param <S> sample type which is used as interning key
+ * @param <E> element type
+ */
 @ThreadSafe
 public abstract class InterningOrdinalDomain<S, E extends OrdinalValue<E>> extends OrdinalDomain<E> {
+  private static final int CHUNK_POWER_OF_TWO = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_POWER_OF_TWO;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int INITIAL_CHUNKS = 4;
+  private static final int SNAPSHOT_MAGIC = 0x0D1A5A17;
+
+  private final ConcurrentMap<S, E> internedInstances = new ConcurrentHashMap<>();
+
+  private final Object appendLock = new Object();
+
+  /**
+   * Chunks are allocated once and never copied, only directory array is grown.
+   * Slots are written before {@link #length} is published, so any ordinal below length read
+   * through volatile {@code length} is safely visible. The only exception are values restored
+   * from snapshot, which are decoded lazily under the lock and then published through data race,
+   * this is safe for immutable values with final fields, as ordinal values are.
+   */
+  private volatile Object[][] chunks = new Object[INITIAL_CHUNKS][];
 
-  private final List<E> values = new CopyOnWriteArrayList<>();
+  private volatile int length;
 
-  @GuardedBy("internedInstances")
-  private final Map<S, E> internedInstances = new HashMap<>();
+  @GuardedBy("appendLock")
+  private @Nullable Snapshot<S, E> snapshot;
 
   public final E internOrdinal(S valueSample) {
-    synchronized (internedInstances) {
-      @Nullable E value = internedInstances.get(valueSample);
+    @Nullable E value = internedInstances.get(valueSample);
+    if (value != null) {
+      return value;
+    }
+    synchronized (appendLock) {
+      if (snapshot != null) {
+        // All restored values should be registered for interning before
+        // we can be sure that this is new value
+        restoreRemaining();
+      }
+      value = internedInstances.get(valueSample);
       if (value == null) {
-        value = extractValue(valueSample, internedInstances.size());
+        int ordinal = length;
+        value = extractValue(valueSample, ordinal);
+        chunkFor(ordinal)[ordinal & CHUNK_MASK] = value;
+        // publish length before value becomes visible to lock-free lookups
+        length = ordinal + 1;
         internedInstances.put(valueSample, value);
-        values.add(value);
       }
       return value;
     }
   }
 
-  protected abstract E extractValue(S valueSample, int ordinal);
-
-  @Override
-  public Iterator<E> iterator() {
-    return values.iterator();
+  @GuardedBy("appendLock")
+  private Object[] chunkFor(int ordinal) {
+    int chunkIndex = ordinal >>> CHUNK_POWER_OF_TWO;
+    Object[][] chunks = this.chunks;
+    if (chunkIndex >= chunks.length) {
+      int newLength = chunks.length;
+      while (chunkIndex >= newLength) {
+        newLength <<= 1;
+      }
+      chunks = Arrays.copyOf(chunks, newLength);
+      this.chunks = chunks;
+    }
+    Object[] chunk = chunks[chunkIndex];
+    if (chunk == null) {
+      chunk = new Object[CHUNK_SIZE];
+      chunks[chunkIndex] = chunk;
+    }
+    return chunk;
   }
 
+  protected abstract E extractValue(S valueSample, int ordinal);
+
+  @SuppressWarnings("unchecked")
   @Override
   public final E get(int ordinal) {
-    return values.get(ordinal);
+    // Reading volatile length first establishes visibility of chunk slots below it
+    int length = this.length;
+    if (ordinal < 0 || ordinal >= length) {
+      throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of domain length " + length);
+    }
+    @Nullable Object value = chunks[ordinal >>> CHUNK_POWER_OF_TWO][ordinal & CHUNK_MASK];
+    if (value == null) {
+      value = restore(ordinal);
+    }
+    // Safe unchecked: only values of type E are stored in chunks
+    return (E) value;
   }
 
   @Override
   public final int length() {
-    return values.size();
+    return length;
+  }
+
+  /**
+   * Encodes and decodes values for domain snapshots.
+   * @see InterningOrdinalDomain#writeSnapshot(File, Codec)
+   * @see InterningOrdinalDomain#restoreSnapshot(File, Codec)
+   * @param <S> sample type which is used as interning key
+   * @param <E> element type
+   */
+  public interface Codec<S, E> {
+    /**
+     * Writes value so that it could be later read as sample of the same value.
+     * @param value the value
+     * @param output data output
+     * @throws IOException if write failed
+     */
+    void write(E value, DataOutput output) throws IOException;
+
+    /**
+     * Reads value sample, which will be used to construct value with the persisted ordinal.
+     * @param input data input
+     * @return value sample
+     * @throws IOException if read failed
+     */
+    S read(DataInput input) throws IOException;
+  }
+
+  /**
+   * Writes snapshot of the ordinal-to-value table to a file. Values interned concurrently with
+   * the write are not included.
+   * @param file snapshot file
+   * @param codec value codec
+   * @throws IOException if write failed
+   */
+  public final void writeSnapshot(File file, Codec<S, E> codec) throws IOException {
+    int length = this.length;
+    int[] offsets = new int[length + 1];
+    // Buffering is below the counting stream and DataOutputStream writes through without
+    // buffering of its own, so the count is exact at any point without intermediate flushes
+    try (CountingOutputStream counting = new CountingOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      DataOutputStream output = new DataOutputStream(counting);
+      output.writeInt(SNAPSHOT_MAGIC);
+      output.writeInt(length);
+      for (int i = 0; i < length; i++) {
+        offsets[i] = Ints.checkedCast(counting.getCount());
+        codec.write(get(i), output);
+      }
+      offsets[length] = Ints.checkedCast(counting.getCount());
+      for (int offset : offsets) {
+        output.writeInt(offset);
+      }
+      output.flush();
+    }
+  }
+
+  /**
+   * Restores ordinal-to-value table from a snapshot file, written by
+   * {@link #writeSnapshot(File, Codec)}, into this empty domain. The file is memory-mapped and
+   * values are decoded lazily on the first access by {@link #get(int)}. All values are decoded
+   * on the first interning of a value which was not yet decoded, so interning is kept consistent
+   * with restored ordinals.
+   * @param file snapshot file
+   * @param codec value codec
+   * @throws IOException if read failed or file is not a valid snapshot
+   * @throws IllegalStateException if domain is not empty
+   */
+  public final void restoreSnapshot(File file, Codec<S, E> codec) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.limit() < 8 || buffer.getInt(0) != SNAPSHOT_MAGIC) {
+      throw new IOException("Not an ordinal domain snapshot: " + file);
+    }
+    int count = buffer.getInt(4);
+    // Checked before computing position of offsets, which would otherwise overflow for large count
+    if (count < 0 || count > (buffer.limit() - 8) / Ints.BYTES - 1) {
+      throw new IOException("Corrupted ordinal domain snapshot: " + file);
+    }
+    int offsetsPosition = buffer.limit() - (count + 1) * Ints.BYTES;
+    synchronized (appendLock) {
+      checkState(length == 0, "Snapshot could be restored only into empty domain");
+      if (count > 0) {
+        chunkFor(count - 1);
+        for (int i = 0; i < count; i += CHUNK_SIZE) {
+          chunkFor(i);
+        }
+        snapshot = new Snapshot<>(buffer, codec, count, offsetsPosition);
+      }
+      length = count;
+    }
+  }
+
+  private Object restore(int ordinal) {
+    synchronized (appendLock) {
+      Object[] chunk = chunks[ordinal >>> CHUNK_POWER_OF_TWO];
+      @Nullable Object value = chunk[ordinal & CHUNK_MASK];
+      if (value == null) {
+        checkState(snapshot != null, "No value for ordinal %s", ordinal);
+        value = restoreValue(snapshot, ordinal, chunk);
+        if (snapshot.remaining == 0) {
+          snapshot = null;
+        }
+      }
+      return value;
+    }
+  }
+
+  @GuardedBy("appendLock")
+  private void restoreRemaining() {
+    Snapshot<S, E> snapshot = this.snapshot;
+    for (int ordinal = 0; ordinal < snapshot.count && snapshot.remaining > 0; ordinal++) {
+      Object[] chunk = chunks[ordinal >>> CHUNK_POWER_OF_TWO];
+      if (chunk[ordinal & CHUNK_MASK] == null) {
+        restoreValue(snapshot, ordinal, chunk);
+      }
+    }
+    // releasing mapped buffer
+    this.snapshot = null;
+  }
+
+  @GuardedBy("appendLock")
+  private E restoreValue(Snapshot<S, E> snapshot, int ordinal, Object[] chunk) {
+    S sample = snapshot.read(ordinal);
+    E value = extractValue(sample, ordinal);
+    chunk[ordinal & CHUNK_MASK] = value;
+    internedInstances.put(sample, value);
+    snapshot.remaining--;
+    return value;
+  }
+
+  private static final class Snapshot<S, E> {
+    final ByteBuffer buffer;
+    final Codec<S, E> codec;
+    final int count;
+    final int offsetsPosition;
+    int remaining;
+
+    Snapshot(ByteBuffer buffer, Codec<S, E> codec, int count, int offsetsPosition) {
+      this.buffer = buffer;
+      this.codec = codec;
+      this.count = count;
+      this.offsetsPosition = offsetsPosition;
+      this.remaining = count;
+    }
+
+    S read(int ordinal) {
+      int start = buffer.getInt(offsetsPosition + ordinal * Ints.BYTES);
+      int end = buffer.getInt(offsetsPosition + (ordinal + 1) * Ints.BYTES);
+      byte[] bytes = new byte[end - start];
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(start);
+      slice.get(bytes);
+      try {
+        return codec.read(ByteStreams.newDataInput(bytes));
+      } catch (IOException ex) {
+        throw new IllegalStateException("Cannot read snapshot value for ordinal " + ordinal, ex);
+      }
+    }
   }
 }
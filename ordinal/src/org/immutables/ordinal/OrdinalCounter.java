@@ -0,0 +1,194 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.concurrent.ThreadSafe;
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Concurrent counters indexed by {@link OrdinalValue#ordinal() ordinal}. Intended for aggregation
+ * from many threads, where {@link ImmutableOrdinalSet#incrementCounters(int[])} could not be used.
+ * Counters are striped: each thread updates one of several independent arrays (chosen by thread),
+ * which are summed on read, so threads incrementing the same ordinals do not contend on a single
+ * array. Stripe arrays are padded at both ends to avoid sharing cache lines between stripes.
+ * <p>
+ * Reads are not atomic snapshots with respect to concurrent increments: each counter is read
+ * atomically, but the whole array is not.
+ * </p>
+ * @param <E> element type
+ */
+@ThreadSafe
+public final class OrdinalCounter<E extends OrdinalValue<E>> {
+  /** Padding of the cache line size in longs. */
+  private static final int PADDING = 64 / Longs.BYTES;
+  private static final int MAX_DEFAULT_STRIPES = 16;
+
+  private final AtomicLongArray[] stripes;
+  private final int stripeMask;
+  private final int length;
+
+  /**
+   * Creates counters for ordinals from zero to {@code length}, exclusive, with number of stripes
+   * chosen by available processors.
+   * @param length number of counters, usually {@link OrdinalDomain#length()}
+   */
+  public OrdinalCounter(int length) {
+    this(length, Math.min(MAX_DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Creates counters for ordinals from zero to {@code length}, exclusive.
+   * @param length number of counters, usually {@link OrdinalDomain#length()}
+   * @param concurrency expected number of concurrently updating threads, will be rounded up
+   *          to a power of two
+   */
+  public OrdinalCounter(int length, int concurrency) {
+    checkArgument(length >= 0, "length must be non-negative: %s", length);
+    checkArgument(concurrency > 0, "concurrency must be positive: %s", concurrency);
+    int stripeCount = Integer.highestOneBit(Ints.saturatedCast(concurrency * 2L - 1));
+    this.length = length;
+    this.stripeMask = stripeCount - 1;
+    this.stripes = new AtomicLongArray[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new AtomicLongArray(length + PADDING * 2);
+    }
+  }
+
+  /**
+   * Number of counters.
+   * @return the length
+   */
+  public int length() {
+    return length;
+  }
+
+  private AtomicLongArray stripe() {
+    long id = Thread.currentThread().getId();
+    // mixing thread id so that sequentially created threads spread over stripes
+    int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return stripes[(h ^ (h >>> 16)) & stripeMask];
+  }
+
+  private int index(int ordinal) {
+    checkElementIndex(ordinal, length);
+    return ordinal + PADDING;
+  }
+
+  /**
+   * Increments counter for the element.
+   * @param element the element
+   */
+  public void increment(E element) {
+    stripe().incrementAndGet(index(element.ordinal()));
+  }
+
+  /**
+   * Adds delta to the counter for the element.
+   * @param element the element
+   * @param delta value to add
+   */
+  public void add(E element, long delta) {
+    stripe().addAndGet(index(element.ordinal()), delta);
+  }
+
+  /**
+   * Increments counters for all elements contained in a set. Set content is scanned by ordinals
+   * without materializing elements.
+   * @param set ordinal set
+   */
+  public void add(ImmutableOrdinalSet<E> set) {
+    AtomicLongArray stripe = stripe();
+    for (int ordinal = set.nextOrdinal(0); ordinal >= 0; ordinal = set.nextOrdinal(ordinal + 1)) {
+      stripe.incrementAndGet(index(ordinal));
+    }
+  }
+
+  /**
+   * Current value of the counter for the element.
+   * @param element the element
+   * @return counter value
+   */
+  public long get(E element) {
+    int index = index(element.ordinal());
+    long sum = 0;
+    for (AtomicLongArray stripe : stripes) {
+      sum += stripe.get(index);
+    }
+    return sum;
+  }
+
+  /**
+   * Dense snapshot of counters.
+   * @return array of counter values by ordinal
+   */
+  public long[] snapshot() {
+    long[] counters = new long[length];
+    for (AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < length; i++) {
+        counters[i] += stripe.get(i + PADDING);
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * Dense snapshot of counters which resets them to zero as they are read, so no increment is
+   * lost or counted twice across consecutive drains.
+   * @return array of counter values by ordinal
+   */
+  public long[] drain() {
+    long[] counters = new long[length];
+    for (AtomicLongArray stripe : stripes) {
+      for (int i = 0; i < length; i++) {
+        if (stripe.get(i + PADDING) != 0) {
+          counters[i] += stripe.getAndSet(i + PADDING, 0);
+        }
+      }
+    }
+    return counters;
+  }
+
+  /**
+   * Ordinals of the top counters by value, ties are resolved by lower ordinal.
+   * Zero counters are never included.
+   * @param counters snapshot of counters as returned by {@link #snapshot()} or {@link #drain()}
+   * @param limit maximum number of ordinals to return
+   * @return ordinals of the highest counters, in descending order by counter value
+   */
+  public static int[] topOrdinals(long[] counters, int limit) {
+    checkArgument(limit >= 0, "limit must be non-negative: %s", limit);
+    // Bounded insertion into sorted array, efficient for small limits typical for top-K
+    int[] top = new int[Math.min(limit, counters.length)];
+    int count = 0;
+    for (int ordinal = 0; ordinal < counters.length; ordinal++) {
+      long value = counters[ordinal];
+      if (value == 0 || (count == top.length && (count == 0 || value <= counters[top[count - 1]]))) {
+        continue;
+      }
+      int position = count < top.length ? count++ : count - 1;
+      while (position > 0 && counters[top[position - 1]] < value) {
+        top[position] = top[position - 1];
+        position--;
+      }
+      top[position] = ordinal;
+    }
+    return count == top.length ? top : Arrays.copyOf(top, count);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Keys collected by ordinal map builders in the order they were put. Builders keep values in
+ * parallel buffer under the index returned by {@link #add(OrdinalValue)} and then scatter them to
+ * the dense array of {@link #arrayLength()} by {@link #ordinalAt(int) ordinal} of each key.
+ * @param <K> key type
+ */
+final class OrdinalKeys<K extends OrdinalValue<K>> {
+  private final List<K> keys = Lists.newArrayListWithExpectedSize(4);
+
+  /**
+   * Adds key, duplicate keys are detected only when {@link #toSet() building} key set.
+   * @param key the key
+   * @return index of the value for the key in builder's buffer
+   */
+  int add(K key) {
+    keys.add(checkNotNull(key));
+    return keys.size() - 1;
+  }
+
+  int size() {
+    return keys.size();
+  }
+
+  boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  int ordinalAt(int index) {
+    return keys.get(index).ordinal();
+  }
+
+  /**
+   * @return length of dense array, indexed by ordinal, to hold values for all keys
+   */
+  int arrayLength() {
+    int max = 0;
+    for (K k : keys) {
+      max = Math.max(max, k.ordinal());
+    }
+    return max + 1;
+  }
+
+  /**
+   * @return immutable ordinal set of keys
+   * @throws IllegalArgumentException if there are duplicate keys or keys from different domains
+   */
+  ImmutableOrdinalSet<K> toSet() {
+    return ImmutableOrdinalSet.copyOf(keys);
+  }
+}
@@ -0,0 +1,184 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.immutables.check.Checkers.*;
+
+public class InterningOrdinalDomainTest {
+  static class Named implements OrdinalValue<Named> {
+    final NamedDomain domain;
+    final String name;
+    final int ordinal;
+
+    Named(NamedDomain domain, String name, int ordinal) {
+      this.domain = domain;
+      this.name = name;
+      this.ordinal = ordinal;
+    }
+
+    @Override
+    public int ordinal() {
+      return ordinal;
+    }
+
+    @Override
+    public OrdinalDomain<Named> domain() {
+      return domain;
+    }
+  }
+
+  static class NamedDomain extends InterningOrdinalDomain<String, Named> {
+    int extracted;
+
+    @Override
+    protected Named extractValue(String name, int ordinal) {
+      extracted++;
+      return new Named(this, name, ordinal);
+    }
+  }
+
+  static final InterningOrdinalDomain.Codec<String, Named> CODEC = new InterningOrdinalDomain.Codec<String, Named>() {
+    @Override
+    public void write(Named value, DataOutput output) throws IOException {
+      output.writeUTF(value.name);
+    }
+
+    @Override
+    public String read(DataInput input) throws IOException {
+      return input.readUTF();
+    }
+  };
+
+  @Test
+  public void internAcrossChunks() {
+    NamedDomain domain = new NamedDomain();
+    for (int i = 0; i < 5000; i++) {
+      check(domain.internOrdinal("v" + i).ordinal()).is(i);
+    }
+    check(domain.length()).is(5000);
+    check(domain.get(4321).name).is("v4321");
+    check(domain.internOrdinal("v4321")).same(domain.get(4321));
+
+    int count = 0;
+    for (Named n : domain) {
+      check(n.ordinal).is(count++);
+    }
+    check(count).is(5000);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getBeyondLength() {
+    NamedDomain domain = new NamedDomain();
+    domain.internOrdinal("a");
+    domain.get(1);
+  }
+
+  @Test
+  public void concurrentInterning() throws Exception {
+    final NamedDomain domain = new NamedDomain();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int i = 0; i < 3000; i++) {
+              Named n = domain.internOrdinal("v" + i);
+              if (domain.get(n.ordinal) != n) {
+                throw new AssertionError(n.name);
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    check(domain.length()).is(3000);
+    for (int i = 0; i < domain.length(); i++) {
+      check(domain.get(i).ordinal).is(i);
+    }
+  }
+
+  @Test
+  public void snapshotRestore() throws IOException {
+    NamedDomain domain = new NamedDomain();
+    for (int i = 0; i < 2000; i++) {
+      domain.internOrdinal("v" + (i * 7 % 2000));
+    }
+    File file = File.createTempFile("domain", ".snapshot");
+    file.deleteOnExit();
+    domain.writeSnapshot(file, CODEC);
+
+    NamedDomain restored = new NamedDomain();
+    restored.restoreSnapshot(file, CODEC);
+    check(restored.length()).is(2000);
+    check(restored.extracted).is(0);
+
+    Named value = restored.get(1234);
+    check(value.name).is(domain.get(1234).name);
+    check(value.ordinal).is(1234);
+    check(restored.get(1234)).same(value);
+    check(restored.extracted).is(1);
+
+    check(restored.internOrdinal(domain.get(10).name)).same(restored.get(10));
+    check(restored.internOrdinal(value.name)).same(value);
+    check(restored.extracted).is(2000);
+    check(restored.internOrdinal("new").ordinal).is(2000);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void snapshotRestoreIntoNonEmpty() throws IOException {
+    NamedDomain domain = new NamedDomain();
+    domain.internOrdinal("a");
+    File file = File.createTempFile("domain", ".snapshot");
+    file.deleteOnExit();
+    domain.writeSnapshot(file, CODEC);
+    domain.restoreSnapshot(file, CODEC);
+  }
+
+  @Test(expected = IOException.class)
+  public void snapshotRestoreCorruptedCount() throws IOException {
+    NamedDomain domain = new NamedDomain();
+    domain.internOrdinal("a");
+    File file = File.createTempFile("domain", ".snapshot");
+    file.deleteOnExit();
+    domain.writeSnapshot(file, CODEC);
+    try (RandomAccessFile corrupted = new RandomAccessFile(file, "rw")) {
+      // size of offsets table for such count overflows int
+      corrupted.seek(4);
+      corrupted.writeInt(1 << 30);
+    }
+    new NamedDomain().restoreSnapshot(file, CODEC);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.immutables.check.Checkers.*;
+
+public class OrdinalCounterTest {
+  final Domain domain = new Domain();
+  final Ord o1 = domain.get(1);
+  final Ord o2 = domain.get(2);
+  final Ord o70 = domain.get(70);
+  /** Domain length counts cached values only, so counters are sized by the highest ordinal used. */
+  final int length = o70.ordinal() + 1;
+
+  @Test
+  public void countSets() {
+    OrdinalCounter<Ord> counter = new OrdinalCounter<>(length);
+    counter.add(ImmutableOrdinalSet.of(o1, o70));
+    counter.add(ImmutableOrdinalSet.of(o70));
+    counter.increment(o2);
+    counter.add(o2, 5);
+
+    check(counter.get(o1)).is(1L);
+    check(counter.get(o2)).is(6L);
+    check(counter.get(o70)).is(2L);
+    check(counter.snapshot()[70]).is(2L);
+  }
+
+  @Test
+  public void drainResets() {
+    OrdinalCounter<Ord> counter = new OrdinalCounter<>(length, 4);
+    counter.increment(o1);
+
+    check(counter.drain()[1]).is(1L);
+    check(counter.get(o1)).is(0L);
+  }
+
+  @Test
+  public void topOrdinals() {
+    long[] counters = {0, 5, 1, 7, 0, 5};
+    check(OrdinalCounter.topOrdinals(counters, 3)).isOf(3, 1, 5);
+    check(OrdinalCounter.topOrdinals(counters, 10)).isOf(3, 1, 5, 2);
+    check(OrdinalCounter.topOrdinals(counters, 0)).isEmpty();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void ordinalBeyondLength() {
+    new OrdinalCounter<Ord>(2).increment(o2);
+  }
+
+  @Test
+  public void concurrentIncrements() throws Exception {
+    final OrdinalCounter<Ord> counter = new OrdinalCounter<>(length, 8);
+    final ImmutableOrdinalSet<Ord> set = ImmutableOrdinalSet.of(o1, o70);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            for (int i = 0; i < 10000; i++) {
+              counter.add(set);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        // propagates exceptions thrown by workers
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    check(counter.get(o1)).is(80000L);
+    check(counter.get(o70)).is(80000L);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.ordinal;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Test;
+import static org.immutables.check.Checkers.*;
+
+public class OrdinalMapTest {
+  Domain da = new Domain();
+  Domain db = new Domain();
+
+  Ord a0 = da.get(0);
+  Ord a1 = da.get(1);
+  Ord a70 = da.get(70);
+
+  @Test
+  public void emptyMap() {
+    check(ImmutableOrdinalMap.<Ord, String>of().isEmpty());
+    check(ImmutableOrdinalMap.<Ord, String>builder().build()).same(ImmutableOrdinalMap.<Ord, String>of());
+    check(ImmutableOrdinalMap.<Ord, String>of().get(a0)).isNull();
+  }
+
+  @Test
+  public void objectValues() {
+    ImmutableOrdinalMap<Ord, String> map = ImmutableOrdinalMap.<Ord, String>builder()
+        .put(a70, "c")
+        .put(a0, "a")
+        .build();
+
+    check(map.size()).is(2);
+    check(map.get(a0)).is("a");
+    check(map.get(a70)).is("c");
+    check(map.get(a1)).isNull();
+    check(map.get(db.get(0))).isNull();
+    check(map.get("a")).isNull();
+    check(map.containsKey(a70));
+    check(!map.containsKey(a1));
+    check(map.keySet()).isOf(a0, a70);
+    check(map.values()).isOf("a", "c");
+    check((Map<Ord, String>) map).is(ImmutableMap.of(a0, "a", a70, "c"));
+    check(ImmutableOrdinalMap.copyOf(ImmutableMap.of(a0, "a", a70, "c"))).is(map);
+    check(ImmutableOrdinalMap.copyOf(map)).same(map);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicateKeys() {
+    ImmutableOrdinalMap.<Ord, String>builder()
+        .put(a0, "a")
+        .put(a0, "b")
+        .build();
+  }
+
+  @Test
+  public void primitiveValues() {
+    ImmutableOrdinalIntMap<Ord> ints = ImmutableOrdinalIntMap.<Ord>builder()
+        .put(a0, 1)
+        .put(a1, 2)
+        .put(da.get(2), 3)
+        .put(da.get(3), 4)
+        .put(a70, 5)
+        .build();
+
+    check(ints.size()).is(5);
+    check(ints.get(a70, -1)).is(5);
+    check(ints.get(da.get(4), -1)).is(-1);
+    check(ints.get(db.get(0), -1)).is(-1);
+    check(ints.keySet()).hasAll(a0, a1, a70);
+
+    ImmutableOrdinalLongMap<Ord> longs = ImmutableOrdinalLongMap.copyOf(ImmutableMap.of(a1, 10L));
+    check(longs.get(a1, 0L)).is(10L);
+    check(longs).is(ImmutableOrdinalLongMap.<Ord>builder().put(a1, 10L).build());
+
+    ImmutableOrdinalDoubleMap<Ord> doubles = ImmutableOrdinalDoubleMap.<Ord>builder().put(a1, 0.5).build();
+    check(doubles.get(a1, 0.0)).is(0.5);
+    check(!doubles.containsKey(a0));
+
+    ImmutableOrdinalIntMap<Ord> merged = ImmutableOrdinalIntMap.<Ord>builder()
+        .put(a0, 1)
+        .putAll(ImmutableMap.of(a1, 2, a70, 5))
+        .build();
+    check(merged.size()).is(3);
+    check(merged.get(a1, -1)).is(2);
+    check(merged.get(a70, -1)).is(5);
+  }
+}
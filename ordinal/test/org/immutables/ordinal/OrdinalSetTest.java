@@ -149,4 +149,96 @@ public class OrdinalSetTest {
     check(!ImmutableOrdinalSet.of(b0, b1).contains(1));
     check(!ImmutableOrdinalSet.of(b0, b1).containsAll(ImmutableSet.of(0, 1)));
   }
+
+  @Test
+  public void setAlgebra() {
+    ImmutableOrdinalSet<Ord> s1 = ImmutableOrdinalSet.of(da.get(1), da.get(64), da.get(130));
+    ImmutableOrdinalSet<Ord> s2 = ImmutableOrdinalSet.of(da.get(2), da.get(64));
+
+    check(s1.union(s2)).isOf(da.get(1), da.get(2), da.get(64), da.get(130));
+    check(s1.intersection(s2)).isOf(da.get(64));
+    check(s1.difference(s2)).isOf(da.get(1), da.get(130));
+    check(s2.difference(s1)).isOf(da.get(2));
+    check(s1.xor(s2)).isOf(da.get(1), da.get(2), da.get(130));
+
+    check(s1.cardinalityOfUnion(s2)).is(4);
+    check(s1.cardinalityOfIntersection(s2)).is(1);
+    check(s1.cardinalityOfDifference(s2)).is(2);
+    check(s1.cardinalityOfXor(s2)).is(3);
+
+    check(s1.union(ImmutableOrdinalSet.<Ord>of())).same(s1);
+    check(s1.intersection(ImmutableOrdinalSet.<Ord>of())).same(ImmutableOrdinalSet.<Ord>of());
+    check(s1.difference(s1)).same(ImmutableOrdinalSet.<Ord>of());
+    check(s1.intersection(ImmutableOrdinalSet.of(da.get(3), da.get(4)))).same(ImmutableOrdinalSet.<Ord>of());
+  }
+
+  @Test
+  public void singletonSetAlgebra() {
+    ImmutableOrdinalSet<Ord> s = ImmutableOrdinalSet.of(da.get(1), da.get(64));
+    ImmutableOrdinalSet<Ord> s1 = ImmutableOrdinalSet.of(da.get(1));
+    ImmutableOrdinalSet<Ord> s130 = ImmutableOrdinalSet.of(da.get(130));
+
+    check(s.union(s1)).same(s);
+    check(s.union(s130)).isOf(da.get(1), da.get(64), da.get(130));
+    check(s130.union(s)).isOf(da.get(1), da.get(64), da.get(130));
+    check(s1.union(s130)).isOf(da.get(1), da.get(130));
+    check(s.difference(s130)).same(s);
+    check(s.difference(s1)).isOf(da.get(64));
+    check(s.xor(s1)).isOf(da.get(64));
+    check(s1.xor(s)).isOf(da.get(64));
+    check(s.xor(s130)).isOf(da.get(1), da.get(64), da.get(130));
+    check(s1.xor(s130)).isOf(da.get(1), da.get(130));
+    check(s1.xor(ImmutableOrdinalSet.of(da.get(1)))).same(ImmutableOrdinalSet.<Ord>of());
+
+    ImmutableOrdinalSet<Ord> far = ImmutableOrdinalSet.of(da.get(5_000_000));
+    check(s.union(far)).isA(CompressedImmutableOrdinalSet.class);
+    check(s.union(far).difference(far)).is(s);
+    check(s.union(far).xor(far)).is(s);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setAlgebraDifferentDomains() {
+    ImmutableOrdinalSet.of(a0, a1).union(ImmutableOrdinalSet.of(b0, b1));
+  }
+
+  @Test
+  public void equalsHashCodeIteration() {
+    ImmutableOrdinalSet<Ord> s = ImmutableOrdinalSet.of(da.get(70), da.get(3), da.get(200));
+
+    check(s).is(ImmutableOrdinalSet.of(da.get(3), da.get(200), da.get(70)));
+    check(s.equals(ImmutableSet.of(da.get(3), da.get(70), da.get(200))));
+    check(ImmutableSet.of(da.get(3), da.get(70), da.get(200)).equals(s));
+    check(s.hashCode()).is(ImmutableSet.of(da.get(3), da.get(70), da.get(200)).hashCode());
+    check(s).not(ImmutableOrdinalSet.of(da.get(3), da.get(70)));
+
+    check(ImmutableList.copyOf(s)).isOf(da.get(3), da.get(70), da.get(200));
+  }
+
+  @Test
+  public void sparseSetsAreCompressed() {
+    ImmutableOrdinalSet<Ord> sparse = ImmutableOrdinalSet.of(da.get(5), da.get(5_000_000));
+    check(sparse).isA(CompressedImmutableOrdinalSet.class);
+    check(sparse.size()).is(2);
+    check(sparse.contains(da.get(5_000_000)));
+    check(!sparse.contains(da.get(5_000_001)));
+    check(ImmutableList.copyOf(sparse)).isOf(da.get(5), da.get(5_000_000));
+
+    ImmutableOrdinalSet.Builder<Ord> runBuilder = ImmutableOrdinalSet.builder();
+    for (int i = 100_000; i < 101_000; i++) {
+      runBuilder.add(da.get(i));
+    }
+    ImmutableOrdinalSet<Ord> run = runBuilder.build();
+    check(run).isA(CompressedImmutableOrdinalSet.class);
+    check(run.size()).is(1000);
+    check(run.containsAll(ImmutableOrdinalSet.of(da.get(100_000), da.get(100_999))));
+    check(!run.containsAny(sparse));
+
+    check(sparse.union(run).size()).is(1002);
+    check(sparse.union(run).containsAll(run));
+    check(sparse.union(run).difference(run)).is(sparse);
+    check(sparse.intersection(ImmutableOrdinalSet.of(da.get(5), da.get(6)))).isOf(da.get(5));
+    check(sparse.cardinalityOfIntersection(ImmutableOrdinalSet.of(da.get(5), da.get(5_000_000)))).is(2);
+    check(ImmutableOrdinalSet.of(da.get(5_000_000), da.get(5))).is(sparse);
+    check(!ImmutableOrdinalSet.of(a0, a1, da.get(5_000_000)).containsAll(sparse));
+  }
 }
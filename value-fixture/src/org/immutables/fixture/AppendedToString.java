@@ -0,0 +1,60 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.fixture;
+
+import com.google.common.base.Optional;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Value.Style(toStringAppendTo = true, redactedMask = "***")
+public interface AppendedToString {
+  int id();
+
+  @Value.Redacted
+  String secret();
+
+  Optional<AppendedToString> parent();
+
+  List<Vertex> points();
+
+  @Nullable
+  Vertex origin();
+
+  int[] weights();
+
+  @Value.Redacted
+  Optional<String> hint();
+
+  java.util.Optional<Vertex> corner();
+
+  @Value.Immutable
+  @Value.Style(toStringAppendTo = true)
+  interface Vertex {
+    @Value.Parameter
+    int x();
+
+    @Value.Parameter
+    int y();
+
+    @Value.Redacted
+    @Value.Default
+    default String label() {
+      return "";
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.fixture;
+
+import com.google.common.base.Optional;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.immutables.value.Value;
+
+@Value.Immutable(prehash = true)
+@Value.Style(batchMutator = true)
+public abstract class BatchMutated {
+  static final AtomicInteger checks = new AtomicInteger();
+
+  public abstract int a();
+
+  public abstract String b();
+
+  public abstract List<String> c();
+
+  public abstract Optional<String> d();
+
+  @Value.Default
+  public int e() {
+    return a() + 1;
+  }
+
+  @Value.Check
+  protected void check() {
+    checks.incrementAndGet();
+  }
+}
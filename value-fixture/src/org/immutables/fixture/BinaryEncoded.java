@@ -0,0 +1,69 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.fixture;
+
+import com.google.common.base.Optional;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.immutables.binary.Binary;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Binary.Codec
+public interface BinaryEncoded {
+  int id();
+
+  long stamp();
+
+  String name();
+
+  boolean flag();
+
+  double ratio();
+
+  RetentionPolicy policy();
+
+  Optional<String> note();
+
+  @Nullable
+  Integer count();
+
+  List<String> tags();
+
+  Map<String, RetentionPolicy> policies();
+
+  byte[] payload();
+
+  List<Part> parts();
+
+  Optional<Part> main();
+
+  @Value.Derived
+  default int tagCount() {
+    return tags().size();
+  }
+
+  @Value.Immutable
+  interface Part {
+    @Value.Parameter
+    char code();
+
+    @Value.Parameter
+    short weight();
+  }
+}
@@ -0,0 +1,28 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.fixture;
+
+import org.immutables.value.Value;
+
+@Value.Immutable(intern = true)
+@Value.Style(interner = Value.Style.InternerKind.BOUNDED, internerMaximumSize = 2, internerStats = true)
+public abstract class SillyBoundedInterned {
+  @Value.Parameter(order = 0)
+  public abstract int arg1();
+
+  @Value.Parameter(order = 1)
+  public abstract int arg2();
+}
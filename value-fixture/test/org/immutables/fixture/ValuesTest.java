@@ -17,16 +17,19 @@ package org.immutables.fixture;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.POST;
 import nonimmutables.GetterAnnotation;
+import org.immutables.binary.Binaries;
 import org.immutables.fixture.ImmutableSampleCopyOfTypes.ByBuilder;
 import org.immutables.fixture.ImmutableSampleCopyOfTypes.ByConstructorAndWithers;
 import org.immutables.fixture.style.ImmutableOptionalWithNullable;
@@ -303,6 +306,20 @@ public class ValuesTest {
     check(v.counter().get()).is(2);
   }
 
+  @Test
+  public void lockFreeLazyValue() {
+    SillyLockFreeLazy v = ImmutableSillyLockFreeLazy.of(new AtomicInteger());
+
+    check(v.counter().get()).is(0);
+    check(v.val1()).is(1);
+    check(v.counter().get()).is(1);
+
+    check(v.val2()).is("v2");
+    check(v.val1()).is(1);
+    check(v.val2()).is("v2");
+    check(v.counter().get()).is(2);
+  }
+
   @Test
   public void packagePrivateClassGeneration() {
     check(Modifier.isPublic(SillyEmpty.class.getModifiers()));
@@ -327,6 +344,439 @@ public class ValuesTest {
     check(ImmutableSillyInterned.of(1, 2).hashCode()).not(ImmutableSillyInterned.of(2, 2).hashCode());
   }
 
+  @Test
+  public void weakInternedInstanceConstruction() {
+    long misses = ImmutableSillyWeakInterned.internerMissCount();
+    long hits = ImmutableSillyWeakInterned.internerHitCount();
+    ImmutableSillyWeakInterned interned = ImmutableSillyWeakInterned.of(1, 2);
+    check(ImmutableSillyWeakInterned.of(1, 2)).same(interned);
+    check(ImmutableSillyWeakInterned.of(2, 2)).not(interned);
+    check(ImmutableSillyWeakInterned.internerMissCount() - misses).is(2L);
+    check(ImmutableSillyWeakInterned.internerHitCount() - hits).is(1L);
+  }
+
+  @Test
+  public void boundedInternedInstanceConstruction() {
+    check(ImmutableSillyBoundedInterned.of(1, 2)).is(ImmutableSillyBoundedInterned.of(1, 2));
+    check(ImmutableSillyBoundedInterned.of(1, 2)).not(ImmutableSillyBoundedInterned.of(2, 2));
+    ImmutableSillyBoundedInterned.of(3, 3);
+    ImmutableSillyBoundedInterned.of(4, 4);
+    check(ImmutableSillyBoundedInterned.internerSize() <= 2);
+  }
+
+  @Test
+  public void lazyhashCachedHashCode() {
+    ImmutableSillyLazyHash a = ImmutableSillyLazyHash.of(1, ImmutableList.of("a", "b"));
+    ImmutableSillyLazyHash b = ImmutableSillyLazyHash.of(1, ImmutableList.of("a", "b"));
+    ImmutableSillyLazyHash c = ImmutableSillyLazyHash.of(1, ImmutableList.of("b", "a"));
+
+    check(a).is(b);
+    check(a.hashCode()).is(b.hashCode());
+    check(a.hashCode()).is(a.hashCode());
+    check(a).not(c);
+    check(c.hashCode()).not(a.hashCode());
+    check(a).not(c);
+  }
+
+  @Test
+  public void primitiveLists() {
+    ImmutablePrimitiveLists lists = ImmutablePrimitiveLists.builder()
+        .addInts(1)
+        .addInts(2, 3)
+        .addAllInts(ImmutableList.of(4))
+        .addLongs(1L)
+        .addDoubles(Double.NaN, 0.5)
+        .addStrings("a")
+        .build();
+
+    check(lists.ints()).isOf(1, 2, 3, 4);
+    check(lists.longs()).isOf(1L);
+    check(lists.doubles()).isOf(Double.NaN, 0.5);
+    check(lists.ints().contains(3));
+    check(lists.doubles().indexOf(Double.NaN)).is(0);
+
+    check(lists.ints()).is(ImmutableList.of(1, 2, 3, 4));
+    check(lists.ints().hashCode()).is(ImmutableList.of(1, 2, 3, 4).hashCode());
+    check(lists.doubles().hashCode()).is(ImmutableList.of(Double.NaN, 0.5).hashCode());
+
+    ImmutablePrimitiveLists copy = ImmutablePrimitiveLists.builder().from(lists).build();
+    check(copy).is(lists);
+    check(copy.hashCode()).is(lists.hashCode());
+    check(lists.withInts(1, 2, 3, 4)).is(lists);
+    check(lists.withInts(ImmutableList.of(5)).ints()).isOf(5);
+    check(ImmutablePrimitiveLists.builder().build().ints()).isEmpty();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void primitiveListsAreReadOnly() {
+    ImmutablePrimitiveLists.builder().addInts(1).build().ints().set(0, 2);
+  }
+
+  @Test
+  public void persistentCollections() {
+    ImmutablePersistentCollections empty = ImmutablePersistentCollections.builder().build();
+    check(empty.events()).isEmpty();
+    check(empty.tags()).isEmpty();
+    check(empty.counts().isEmpty());
+
+    ImmutablePersistentCollections value = empty;
+    for (int i = 0; i < 1000; i++) {
+      value = value.withEventsAdded("e" + i)
+          .withTagsAdded(i % 10)
+          .withCountsPut("c" + (i % 100), i);
+    }
+
+    check(value.events().size()).is(1000);
+    check(value.events().get(0)).is("e0");
+    check(value.events().get(999)).is("e999");
+    check(value.tags()).hasSize(10);
+    check(value.tags().contains(7));
+    check(value.counts().size()).is(100);
+    check(value.counts().get("c42")).is(942);
+    check(empty.events()).isEmpty();
+
+    ImmutablePersistentCollections copy = ImmutablePersistentCollections.builder()
+        .from(value)
+        .build();
+
+    check(copy).is(value);
+    check(copy.hashCode()).is(value.hashCode());
+    check(value.withTagsAdded(7)).same(value);
+    check(value.withCountsPut("c42", 942)).same(value);
+    check(value.withEventsAdded("x").events().subList(0, 1000)).is(value.events());
+    check(value.withCounts(ImmutableMap.of("a", 1)).counts()).is(ImmutableMap.of("a", 1));
+    check(value.withEvents("a", "b").events()).is(ImmutableList.of("a", "b"));
+  }
+
+  @Test
+  public void batchMutator() {
+    ImmutableBatchMutated value = ImmutableBatchMutated.builder()
+        .a(1)
+        .b("b")
+        .addC("c")
+        .build();
+
+    check(value.mutate().apply()).same(value);
+
+    int checksBefore = BatchMutated.checks.get();
+    ImmutableBatchMutated changed = value.mutate()
+        .a(2)
+        .b("x")
+        .d(com.google.common.base.Optional.of("d"))
+        .apply();
+
+    check(BatchMutated.checks.get()).is(checksBefore + 1);
+    check(changed.a()).is(2);
+    check(changed.b()).is("x");
+    check(changed.d()).isOf("d");
+    check(changed.e()).is(2);
+    check(changed.c()).same(value.c());
+    check(changed).is(value.withA(2).withB("x").withD("d"));
+    check(changed.hashCode()).is(value.withA(2).withB("x").withD("d").hashCode());
+    check(value.mutate().c(ImmutableList.of("y")).apply().c()).isOf("y");
+  }
+
+  @Test
+  public void transferredBuilderBuffers() {
+    ImmutableTransferredBuffers.Builder builder = ImmutableTransferredBuffers.builder()
+        .addNames("a", "b", "c")
+        .addNumbers(1, 2)
+        .addTags("t");
+
+    ImmutableTransferredBuffers first = builder.build();
+    check(first.names()).isOf("a", "b", "c");
+
+    ImmutableTransferredBuffers second = builder
+        .addNames("d")
+        .addAllNumbers(ImmutableList.of(3))
+        .build();
+
+    check(first.names()).isOf("a", "b", "c");
+    check(first.numbers()).isOf(1, 2);
+    check(second.names()).isOf("a", "b", "c", "d");
+    check(second.numbers()).isOf(1, 2, 3);
+
+    ImmutableTransferredBuffers third = builder.names(ImmutableList.of("x")).build();
+    check(second.names()).isOf("a", "b", "c", "d");
+    check(third.names()).isOf("x");
+    check(third.numbers()).isOf(1, 2, 3);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void transferredBuilderBuffersAreReadOnly() {
+    ImmutableTransferredBuffers.builder().addNames("a", "b").build().names().add("c");
+  }
+
+  @Test
+  public void expectedSizeHints() {
+    ImmutablePresizedCollections.Builder builder = ImmutablePresizedCollections.builder()
+        .expectedNamesSize(100)
+        .expectedTagsSize(2)
+        .expectedCountsSize(100)
+        .expectedNumbersSize(100);
+
+    for (int i = 0; i < 100; i++) {
+      builder.addNames("n" + i)
+          .putCounts("c" + i, i)
+          .addNumbers(i);
+    }
+
+    ImmutablePresizedCollections value = builder
+        .addTags("a", "b")
+        .expectedCountsSize(200)
+        .putCounts("c100", 100)
+        .build();
+
+    check(value.names()).hasSize(100);
+    check(value.names().get(99)).is("n99");
+    check(value.counts().size()).is(101);
+    check(value.counts().keySet().iterator().next()).is("c0");
+    check(value.numbers()).hasSize(100);
+    check(value.tags()).isOf("a", "b");
+
+    check(ImmutablePresizedCollections.builder().from(value).build()).is(value);
+  }
+
+  @Test
+  public void binaryCodec() throws Exception {
+    ImmutableBinaryEncoded value = ImmutableBinaryEncoded.builder()
+        .id(-1)
+        .stamp(Long.MAX_VALUE)
+        .name("name")
+        .flag(true)
+        .ratio(0.25)
+        .policy(RetentionPolicy.CLASS)
+        .note("note")
+        .addTags("a", "b")
+        .putPolicies("x", RetentionPolicy.SOURCE)
+        .payload((byte) 1, (byte) -1)
+        .addParts(ImmutablePart.of('p', (short) -3), ImmutablePart.of('q', (short) 300))
+        .main(ImmutablePart.of('m', (short) 0))
+        .build();
+
+    ImmutableBinaryEncoded.Codec codec = ImmutableBinaryEncoded.Codec.INSTANCE;
+    byte[] bytes = Binaries.encode(codec, value);
+    check(Binaries.decode(codec, bytes)).is(value);
+
+    ImmutableBinaryEncoded other = value.withCount(5)
+        .withNote(com.google.common.base.Optional.<String>absent())
+        .withTags();
+
+    ByteBuffer buffer = ByteBuffer.allocate(bytes.length * 2);
+    codec.write(other, Binaries.output(buffer));
+    buffer.flip();
+    BinaryEncoded decoded = codec.read(Binaries.input(buffer));
+    check(decoded).is(other);
+    check(decoded.tagCount()).is(0);
+    check(!buffer.hasRemaining());
+  }
+
+  @Test(expected = IOException.class)
+  public void binaryCodecInvalidOrdinal() throws Exception {
+    ImmutableBinaryEncoded value = ImmutableBinaryEncoded.builder()
+        .id(1)
+        .stamp(2L)
+        .name("")
+        .flag(false)
+        .ratio(0.5)
+        .policy(RetentionPolicy.SOURCE)
+        .payload()
+        .build();
+
+    ImmutableBinaryEncoded.Codec codec = ImmutableBinaryEncoded.Codec.INSTANCE;
+    byte[] bytes = Binaries.encode(codec, value);
+    byte[] other = Binaries.encode(codec, value.withPolicy(RetentionPolicy.CLASS));
+    int ordinalIndex = 0;
+    while (bytes[ordinalIndex] == other[ordinalIndex]) {
+      ordinalIndex++;
+    }
+    bytes[ordinalIndex] = (byte) RetentionPolicy.values().length;
+    Binaries.decode(codec, bytes);
+  }
+
+  @Test
+  public void offHeapFlyweight() {
+    ImmutableOffHeapQuote q1 = ImmutableOffHeapQuote.builder()
+        .active(true)
+        .quantity(3)
+        .id(1L)
+        .price(2.5)
+        .code('x')
+        .policy(RetentionPolicy.RUNTIME)
+        .build();
+
+    ImmutableOffHeapQuote q2 = q1.withActive(false)
+        .withId(2L)
+        .withPolicy(RetentionPolicy.SOURCE);
+
+    int size = ImmutableOffHeapQuote.Flyweight.SIZE;
+    check(size).is(1 + 4 + 8 + 8 + 2 + 4);
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(size * 2);
+    ImmutableOffHeapQuote.Flyweight.write(q1, buffer, 0);
+    ImmutableOffHeapQuote.Flyweight.write(q2, buffer, size);
+
+    ImmutableOffHeapQuote.Flyweight flyweight = ImmutableOffHeapQuote.Flyweight.wrap(buffer, 0);
+    check(flyweight.id()).is(1L);
+    check(flyweight.active());
+    check(flyweight.total()).is(7.5);
+    check(flyweight.toImmutable()).is(q1);
+    check(flyweight).hasToString(q1.toString());
+
+    flyweight.moveTo(size);
+    check(flyweight.policy()).is(RetentionPolicy.SOURCE);
+    check(flyweight.code()).is('x');
+    check(flyweight.toImmutable()).is(q2);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void offHeapFlyweightOutOfRange() {
+    ImmutableOffHeapQuote.Flyweight.wrap(ByteBuffer.allocate(ImmutableOffHeapQuote.Flyweight.SIZE), 1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void offHeapFlyweightInvalidOrdinal() {
+    byte[] corrupted = new byte[ImmutableOffHeapQuote.Flyweight.SIZE];
+    Arrays.fill(corrupted, (byte) -1);
+    ImmutableOffHeapQuote.Flyweight.wrap(ByteBuffer.wrap(corrupted), 0).policy();
+  }
+
+  @Test
+  public void columnarBatch() {
+    ImmutableColumnarMeasurement m1 = ImmutableColumnarMeasurement.builder()
+        .timestamp(1)
+        .value(0.5)
+        .sensor("a")
+        .addTags("x")
+        .build();
+
+    ImmutableColumnarMeasurement m2 = ImmutableColumnarMeasurement.builder()
+        .timestamp(2)
+        .value(1.5)
+        .sensor("b")
+        .unit("C")
+        .note("n")
+        .build();
+
+    ImmutableColumnarMeasurement.Batch batch = new ImmutableColumnarMeasurement.Batch(1)
+        .add(m1)
+        .add(m2)
+        .addAll(Arrays.asList(m1, m2));
+
+    check(batch.size()).is(4);
+    check(batch.timestamp(1)).is(2L);
+    check(batch.value(2)).is(0.5);
+    check(batch.sensor(3)).is("b");
+    check(batch.unit(0)).isAbsent();
+    check(batch.note(1)).is("n");
+    check(batch.tags(0)).isOf("x");
+    check(batch.get(0)).is(m1);
+    check(batch.get(3)).is(m2);
+
+    ImmutableColumnarMeasurement.Batch.Cursor cursor = batch.cursor().moveTo(1);
+    check(cursor.sensor()).is("b");
+    check(cursor.toImmutable()).is(m2);
+
+    long sum = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      sum += cursor.moveTo(i).timestamp();
+    }
+    check(sum).is(6L);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void columnarBatchOutOfRange() {
+    new ImmutableColumnarMeasurement.Batch().sensor(0);
+  }
+
+  @Test
+  public void costOrderedEquality() {
+    final AtomicInteger comparisons = new AtomicInteger();
+    Object element = new Object() {
+      @Override
+      public boolean equals(Object obj) {
+        comparisons.incrementAndGet();
+        return obj == this;
+      }
+
+      @Override
+      public int hashCode() {
+        return 1;
+      }
+    };
+    ImmutableCostOrderedEquality a = ImmutableCostOrderedEquality.builder()
+        .addElements(element)
+        .nested(ImmutableHashedNested.of(ImmutableList.of(element)))
+        .name("a")
+        .id(1)
+        .build();
+
+    check(a.withId(2)).not(a);
+    check(a.withName("b")).not(a);
+    check(a.withNested(ImmutableHashedNested.of(ImmutableList.of(element, element)))).not(a);
+    check(comparisons.get()).is(0);
+
+    check(a.withName("b").withName("a")).is(a);
+  }
+
+  @Test
+  public void toStringAppendTo() {
+    ImmutableAppendedToString parent = ImmutableAppendedToString.builder()
+        .id(1)
+        .secret("a")
+        .weights()
+        .build();
+
+    ImmutableAppendedToString child = ImmutableAppendedToString.builder()
+        .id(2)
+        .secret("b")
+        .parent(parent)
+        .addPoints(ImmutableVertex.of(1, 2), ImmutableVertex.of(3, 4).withLabel("c"))
+        .origin(ImmutableVertex.of(0, 0))
+        .weights(5, 6)
+        .hint("h")
+        .corner(ImmutableVertex.of(5, 5))
+        .build();
+
+    check(parent).hasToString("AppendedToString{id=1, secret=***, points=[], weights=[]}");
+    check(child).hasToString("AppendedToString{id=2, secret=***, "
+        + "parent=AppendedToString{id=1, secret=***, points=[], weights=[]}, "
+        + "points=[Vertex{x=1, y=2}, Vertex{x=3, y=4}], origin=Vertex{x=0, y=0}, weights=[5, 6], hint=***, "
+        + "corner=Vertex{x=5, y=5}}");
+
+    StringBuilder builder = new StringBuilder("> ");
+    check(child.appendTo(builder)).same(builder);
+    check(builder).hasToString("> " + child);
+  }
+
+  @Test
+  public void packedAttributes() {
+    ImmutablePackedFlags flags = ImmutablePackedFlags.of(true, RetentionPolicy.CLASS, false, "x");
+
+    check(flags.a());
+    check(!flags.b());
+    check(flags.c());
+    check(flags.policy()).is(RetentionPolicy.CLASS);
+
+    ImmutablePackedFlags built = ImmutablePackedFlags.builder()
+        .a(true)
+        .b(false)
+        .policy(RetentionPolicy.CLASS)
+        .name("x")
+        .build();
+
+    check(built).is(flags);
+    check(built.hashCode()).is(flags.hashCode());
+    check(built.toString()).is("PackedFlags{a=true, policy=CLASS, b=false, name=x, c=true}");
+
+    check(flags.withA(true)).same(flags);
+    check(flags.withB(true).b());
+    check(flags.withB(true).a());
+    check(flags.withB(true)).not(flags);
+    check(flags.withPolicy(RetentionPolicy.RUNTIME).policy()).is(RetentionPolicy.RUNTIME);
+    check(flags.withPolicy(RetentionPolicy.RUNTIME).withPolicy(RetentionPolicy.CLASS)).is(flags);
+  }
+
   @Test(expected = IllegalStateException.class)
   public void cannotBuildWrongInvariants() {
     ImmutableSillyValidatedBuiltValue.builder()
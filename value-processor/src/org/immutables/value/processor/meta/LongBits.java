@@ -43,6 +43,16 @@ public final class LongBits implements Function<Iterable<? extends Object>, Long
     return new LongPositions(input, bitPerLong);
   }
 
+  /**
+   * Packs elements of variable bit width into longs, element never spans two longs.
+   * @param input elements
+   * @param widths function to compute bit width of each element, from 1 to 64
+   * @return positions
+   */
+  public LongPositions forWidths(Iterable<? extends Object> input, Function<Object, Integer> widths) {
+    return new LongPositions(input, widths);
+  }
+
   public static final class LongPositions implements Function<Object, BitPosition> {
     private final IdentityHashMap<Object, BitPosition> positions = Maps.newIdentityHashMap();
     private final ImmutableList<Object> elements;
@@ -60,7 +70,30 @@ public final class LongBits implements Function<Iterable<? extends Object>, Long
                 i % bitPerLong));
       }
 
-      this.longPositions = ImmutableSortedMap.copyOf(
+      this.longPositions = indexLongPositions();
+    }
+
+    LongPositions(Iterable<? extends Object> elements, Function<Object, Integer> widths) {
+      this.elements = ImmutableList.copyOf(elements);
+
+      int index = 0;
+      int bit = 0;
+      for (Object element : this.elements) {
+        int width = widths.apply(element);
+        checkArgument(width > 0 && width <= BITS_IN_LONG, width);
+        if (bit + width > BITS_IN_LONG) {
+          index++;
+          bit = 0;
+        }
+        positions.put(element, new BitPosition(index, bit, width));
+        bit += width;
+      }
+
+      this.longPositions = indexLongPositions();
+    }
+
+    private ImmutableMap<Integer, LongSet> indexLongPositions() {
+      return ImmutableSortedMap.copyOf(
           Maps.transformEntries(
               Multimaps.index(positions.values(), ToLongIndex.FUNCTION).asMap(),
               new Maps.EntryTransformer<Integer, Collection<BitPosition>, LongSet>() {
@@ -117,12 +150,18 @@ public final class LongBits implements Function<Iterable<? extends Object>, Long
   public static final class BitPosition {
     public final int index;
     public final int bit;
+    public final int width;
     public final long mask;
 
     BitPosition(int index, int bit) {
+      this(index, bit, 1);
+    }
+
+    BitPosition(int index, int bit, int width) {
       this.index = index;
       this.bit = bit;
-      this.mask = 1L << bit;
+      this.width = width;
+      this.mask = (width == BITS_IN_LONG ? -1L : (1L << width) - 1) << bit;
     }
   }
 }
@@ -0,0 +1,64 @@
+/*
+   Copyright 2017 Immutables Authors and Contributors
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package org.immutables.value.processor.meta;
+
+import javax.annotation.Nullable;
+
+/**
+ * Element kinds of list attributes which could be stored as primitive arrays when
+ * {@code Style.primitiveLists} is enabled. Each kind corresponds to the array-backed list class
+ * generated as utility in the top level immutable type.
+ */
+public enum PrimitiveListKind {
+  INT("int", Integer.class),
+  LONG("long", Long.class),
+  DOUBLE("double", Double.class);
+
+  private final String primitive;
+  private final String wrapper;
+  private final String listType;
+
+  PrimitiveListKind(String primitive, Class<?> wrapper) {
+    this.primitive = primitive;
+    this.wrapper = wrapper.getName();
+    this.listType = Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1) + "ArrayList";
+  }
+
+  public String getPrimitive() {
+    return primitive;
+  }
+
+  public String getWrapper() {
+    return wrapper;
+  }
+
+  public String getListType() {
+    return listType;
+  }
+
+  public boolean isFloatingPoint() {
+    return this == DOUBLE;
+  }
+
+  static @Nullable PrimitiveListKind forPrimitive(String primitive) {
+    for (PrimitiveListKind k : values()) {
+      if (k.primitive.equals(primitive)) {
+        return k;
+      }
+    }
+    return null;
+  }
+}
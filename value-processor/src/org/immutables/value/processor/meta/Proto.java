@@ -326,6 +326,11 @@ public class Proto {
       return findElement(VersionMirror.qualifiedName()) != null;
     }
 
+    @Value.Lazy
+    public boolean hasBinaryModule() {
+      return findElement(CodecMirror.qualifiedName()) != null;
+    }
+
     @Value.Lazy
     public boolean hasTreesModule() {
       return findElement(TransformMirror.qualifiedName()) != null;
@@ -556,6 +561,11 @@ public class Proto {
       return StructuralMirror.isPresent(element());
     }
 
+    @Value.Lazy
+    public boolean isBinaryCodec() {
+      return CodecMirror.isPresent(element());
+    }
+
     @Value.Lazy
     public boolean isJacksonSerialized() {
       if (jacksonSerializeMode() == JacksonMode.DELEGATED) {
@@ -749,6 +759,19 @@ public class Proto {
       return false;
     }
 
+    @Override
+    @Value.Lazy
+    public boolean isBinaryCodec() {
+      if (super.isBinaryCodec()) {
+        return true;
+      }
+      Optional<DeclaringPackage> parent = namedParentPackage();
+      if (parent.isPresent()) {
+        return parent.get().isBinaryCodec();
+      }
+      return false;
+    }
+
     @Override
     @Value.Lazy
     public Optional<Long> serialVersion() {
@@ -1316,6 +1339,25 @@ public class Proto {
       return packageOf().isSerialStructural();
     }
 
+    @Value.Lazy
+    public boolean isBinaryCodec() {
+      if (!environment().hasBinaryModule()) {
+        return false;
+      }
+      if (declaringType().isPresent()) {
+        DeclaringType t = declaringType().get();
+        if (t.isBinaryCodec()) {
+          return true;
+        }
+        if (t.enclosingTopLevel().isPresent()) {
+          if (t.enclosingTopLevel().get().isBinaryCodec()) {
+            return true;
+          }
+        }
+      }
+      return packageOf().isBinaryCodec();
+    }
+
     @Value.Lazy
     public boolean isJacksonSerialized() {
       if (!styles().style().jacksonIntegration()) {
@@ -1712,6 +1754,7 @@ public class Proto {
           input.builder(),
           input.copy(),
           input.intern(),
+          input.lazyhash(),
           input.prehash(),
           input.singleton())
           .withIsDefault(input.getAnnotationMirror().getElementValues().isEmpty());
@@ -1795,7 +1838,21 @@ public class Proto {
           input.addBuilder(),
           input.addAllBuilder(),
           input.getBuilders(),
-          input.nullableAnnotation());
+          input.nullableAnnotation(),
+          input.interner(),
+          input.internerConcurrency(),
+          input.internerMaximumSize(),
+          input.internerStats(),
+          input.lockFreeLazy(),
+          input.primitiveLists(),
+          input.packedAttributes(),
+          input.persistentCollections(),
+          input.batchMutator(),
+          input.transferBuilderBuffers(),
+          input.expectedSizeHints(),
+          input.toStringAppendTo(),
+          input.columnarBatch(),
+          input.offHeapFlyweight());
     }
   }
 
@@ -337,6 +337,62 @@ public abstract class StyleInfo implements ValueMirrors.Style {
   @Override
   public abstract String nullableAnnotation();
 
+  @Value.Parameter
+  @Override
+  public abstract InternerKind interner();
+
+  @Value.Parameter
+  @Override
+  public abstract int internerConcurrency();
+
+  @Value.Parameter
+  @Override
+  public abstract int internerMaximumSize();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean internerStats();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean lockFreeLazy();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean primitiveLists();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean packedAttributes();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean persistentCollections();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean batchMutator();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean transferBuilderBuffers();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean expectedSizeHints();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean toStringAppendTo();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean columnarBatch();
+
+  @Value.Parameter
+  @Override
+  public abstract boolean offHeapFlyweight();
+
   @Value.Lazy
   public Styles getStyles() {
     return new Styles(this);
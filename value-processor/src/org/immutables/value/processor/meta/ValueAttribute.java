@@ -517,6 +517,146 @@ public final class ValueAttribute extends TypeIntrospectionBase {
     return typeKind.isContainerKind() && rawTypeName.startsWith(GUAVA_IMMUTABLE_PREFIX);
   }
 
+  /**
+   * List of primitive wrappers which will be stored as primitive array, if enabled by style.
+   * @return primitive list kind or {@code null} if not applicable
+   */
+  @Nullable
+  public PrimitiveListKind getPrimitiveListKind() {
+    if (containingType.constitution.style().primitiveLists()
+        && typeKind.isList()
+        && !isGuavaImmutableDeclared()
+        && !isNullableCollector()
+        && !isAttributeBuilder()
+        && !isEncoding()
+        && nullElements.ban()) {
+      return PrimitiveListKind.forPrimitive(getUnwrappedElementType());
+    }
+    return null;
+  }
+
+  /** Enums with no more than this number of constants could be bit-packed. */
+  private static final int MAX_PACKED_ENUM_CONSTANTS = 16;
+
+  /**
+   * Could be stored in bit-packed form, if enabled by style. These are non-auxiliary abstract
+   * attributes of {@code boolean} or small enum type.
+   * @return if attribute could be packed
+   */
+  boolean isPackable() {
+    return isGenerateAbstract
+        && !isGenerateDefault
+        && !isGenerateDerived
+        && !isNullable()
+        && !isEncoding()
+        && !isAuxiliary()
+        && (isBoolean() || isPackedEnum());
+  }
+
+  public boolean isPacked() {
+    return containingType.getPackedAttributes().contains(this);
+  }
+
+  public boolean isPackedEnum() {
+    return isEnumType() && !isContainerType() && !isArrayType() && getPackedWidth() > 0;
+  }
+
+  /**
+   * Number of bits to store the attribute value in packed form.
+   * @return bit width or {@code 0} if attribute cannot be packed
+   */
+  public int getPackedWidth() {
+    if (isBoolean()) {
+      return 1;
+    }
+    if (!isEnumType() || containedTypeElement == null) {
+      return 0;
+    }
+    int constants = 0;
+    for (Element e : containedTypeElement.getEnclosedElements()) {
+      if (e.getKind() == ElementKind.ENUM_CONSTANT) {
+        constants++;
+      }
+    }
+    if (constants == 0 || constants > MAX_PACKED_ENUM_CONSTANTS) {
+      return 0;
+    }
+    return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(constants - 1));
+  }
+
+  public boolean isPrimitiveList() {
+    return getPrimitiveListKind() != null;
+  }
+
+  public String getPrimitiveListType() {
+    PrimitiveListKind kind = getPrimitiveListKind();
+    return kind != null ? kind.getListType() : "";
+  }
+
+  /**
+   * List, set or map which will be stored as persistent collection, if enabled by style.
+   * @return {@code true} if stored as persistent collection
+   */
+  public boolean isPersistentCollection() {
+    return containingType.constitution.style().persistentCollections()
+        && (typeKind.isList() || typeKind.isSet() || typeKind.isMap())
+        && !isGuavaImmutableDeclared()
+        && !isGenerateOrdinalValueSet()
+        && !isNullable()
+        && !isNullableCollector()
+        && !isAttributeBuilder()
+        && !isEncoding()
+        && !isPrimitiveList()
+        && nullElements.ban();
+  }
+
+  /**
+   * List which builder hands over to built instance without copying, if enabled by style.
+   * @return {@code true} if builder buffer is transferred
+   */
+  public boolean isBuilderBufferTransfer() {
+    return containingType.constitution.style().transferBuilderBuffers()
+        && containingType.isGenerateJdkOnly()
+        && typeKind.isList()
+        && !isNullable()
+        && !isNullableCollector()
+        && !isAttributeBuilder()
+        && !isEncoding()
+        && !isPrimitiveList()
+        && !isPersistentCollection();
+  }
+
+  /**
+   * Collection or map for which builder could allocate storage for expected number of elements,
+   * if enabled by style.
+   * @return {@code true} if builder has expected size hint for attribute
+   */
+  public boolean isPresizable() {
+    if (!containingType.constitution.style().expectedSizeHints()
+        || isNullable()
+        || isNullableCollector()
+        || isAttributeBuilder()
+        || isEncoding()) {
+      return false;
+    }
+    if (isPrimitiveList()) {
+      return true;
+    }
+    return containingType.isGenerateJdkOnly()
+        && ((isCollectionType() && !isGenerateEnumSet() && !isCustomCollectionType())
+            || (isMapType() && !isGenerateEnumMap() && !isMultimapType()));
+  }
+
+  public String getPersistentCollectionType() {
+    if (!isPersistentCollection()) {
+      return "";
+    }
+    if (typeKind.isList()) {
+      return "PersistentVector";
+    }
+    return typeKind.isSet() ? "PersistentHashSet" : "PersistentHashMap";
+  }
+
   @Nullable
   private String defaultInterface;
 
@@ -795,6 +935,7 @@ public final class ValueAttribute extends TypeIntrospectionBase {
   public boolean wrapArrayToIterable() {
     return containingType.isGenerateJdkOnly()
         || isUnwrappedElementPrimitiveType()
+        || isPersistentCollection()
         || !(typeKind.isList() || typeKind.isSet() || typeKind.isMultiset());
   }
 
@@ -1173,6 +1314,215 @@ public final class ValueAttribute extends TypeIntrospectionBase {
     }
   }
 
+  private int offHeapOffsetSlot;
+
+  /**
+   * Width in bytes of the attribute value in the fixed off-heap layout. Primitives take their
+   * natural size, enums are stored as {@code int} ordinals.
+   * @return width or {@code 0} if attribute cannot be stored in fixed layout
+   */
+  public int getOffHeapWidth() {
+    if (isNullable() || isEncoding() || !typeKind.isRegular()) {
+      return 0;
+    }
+    switch (returnType.getKind()) {
+    case BOOLEAN:
+    case BYTE:
+      return 1;
+    case SHORT:
+    case CHAR:
+      return 2;
+    case INT:
+    case FLOAT:
+      return 4;
+    case LONG:
+    case DOUBLE:
+      return 8;
+    case DECLARED:
+      return isEnumType() ? 4 : 0;
+    default:
+      return 0;
+    }
+  }
+
+  public int getOffHeapOffset() {
+    return offHeapOffsetSlot;
+  }
+
+  void assignOffHeapOffset(int offset) {
+    this.offHeapOffsetSlot = offset;
+  }
+
+  @Nullable
+  private ValueType nestedValueType;
+  private boolean nestedValueTypeResolved;
+
+  /**
+   * Generated value type of the attribute or of its elements, to which {@code appendTo} could be
+   * delegated when generating string representation.
+   * @return value type or {@code null} if not applicable
+   */
+  @Nullable
+  public ValueType getAppendToValueType() {
+    if (!containingType.isGenerateAppendTo()
+        || isEncoding()
+        || isArrayType()
+        || typeKind.isMappingKind()
+        || typeKind.isMultisetKind()
+        || typeKind.isCustomCollection()) {
+      return null;
+    }
+    @Nullable ValueType type = getNestedValueType();
+    return type != null && type.isGenerateAppendTo() ? type : null;
+  }
+
+  public boolean isAppendToElements() {
+    return getAppendToValueType() != null
+        && (typeKind.isList() || typeKind.isSet() || typeKind.isSortedSet());
+  }
+
+  /**
+   * Estimated cost of comparing attribute values, used to order comparisons in {@code equalTo} so
+   * that cheap ones short-circuit before deep comparisons.
+   * @return cost rank from {@code 0} for primitives to {@code 3} for arrays, collections and maps
+   */
+  public int getEqualityCost() {
+    if (isEncoding()) {
+      return 2;
+    }
+    if (isArrayType() || isCollectionType() || isMapType()) {
+      return 3;
+    }
+    if (isPrimitive()) {
+      return 0;
+    }
+    if (isEnumType() && typeKind.isRegular() && !isNullable()) {
+      return 0;
+    }
+    if (isStringType() || isPrimitiveWrapperType() || isEnumType()) {
+      return 1;
+    }
+    return 2;
+  }
+
+  public boolean isCheapEquality() {
+    return getEqualityCost() < 2;
+  }
+
+  /**
+   * Hash codes of nested values which are precomputed on construction could be compared before
+   * comparing values themselves, which is a cheap way to find most of the unequal values. Lazily
+   * cached hash codes are not compared, as computing them might cost more than the comparison.
+   * @return {@code true} if hash codes should be compared in {@code equalTo}
+   */
+  public boolean isEqualityHashCheck() {
+    if (isEncoding()
+        || isNullable()
+        || !typeKind.isRegular()
+        || containingType.isAnnotationType()) {
+      return false;
+    }
+    @Nullable ValueType type = getNestedValueType();
+    return type != null && type.isUsePrehashed();
+  }
+
+  /**
+   * Kind of binary encoding of the attribute value, or of its elements for collections, arrays
+   * and optional values: name of primitive type (wrappers are unboxed), {@code "String"},
+   * {@code "enum"} or {@code "value"} for nested values having binary codec generated.
+   * @return encoding kind or {@code null} if values could not be encoded
+   */
+  @Nullable
+  public String getBinaryKind() {
+    String typeName = unwrapType(containmentTypeName());
+    if (isPrimitiveType(typeName)) {
+      return typeName;
+    }
+    if (String.class.getName().equals(typeName)) {
+      return "String";
+    }
+    if (isEnumType()) {
+      return "enum";
+    }
+    @Nullable ValueType type = getBinaryValueType();
+    return type != null ? "value" : null;
+  }
+
+  /**
+   * Kind of binary encoding of map values, nested values are not supported as map values.
+   * @return encoding kind or {@code null} if values could not be encoded
+   * @see #getBinaryKind()
+   */
+  @Nullable
+  public String getBinarySecondaryKind() {
+    String typeName = unwrapType(secondTypeParameter());
+    if (isPrimitiveType(typeName)) {
+      return typeName;
+    }
+    if (String.class.getName().equals(typeName)) {
+      return "String";
+    }
+    if (containedSecondaryTypeElement != null
+        && containedSecondaryTypeElement.getKind() == ElementKind.ENUM) {
+      return "enum";
+    }
+    return null;
+  }
+
+  public String getBinaryType() {
+    return unwrapType(containmentTypeName());
+  }
+
+  public String getBinarySecondaryType() {
+    return unwrapType(secondTypeParameter());
+  }
+
+  @Nullable
+  public ValueType getBinaryValueType() {
+    @Nullable ValueType type = getNestedValueType();
+    return type != null && type.isGenerateBinaryCodec() ? type : null;
+  }
+
+  public boolean isBinarySupported() {
+    if (isEncoding()
+        || typeKind.isCustomCollection()
+        || (isNullable() && isMultimapType())
+        || getBinaryKind() == null) {
+      return false;
+    }
+    return !isMapType() || getBinarySecondaryKind() != null;
+  }
+
+  @Nullable
+  private ValueType getNestedValueType() {
+    if (!nestedValueTypeResolved) {
+      nestedValueTypeResolved = true;
+      nestedValueType = resolveNestedValueType();
+    }
+    return nestedValueType;
+  }
+
+  @Nullable
+  private ValueType resolveNestedValueType() {
+    ensureTypeIntrospected();
+    if (containedTypeElement == null) {
+      return null;
+    }
+    if (CachingElements.equals(containedTypeElement, containingType.element)) {
+      return containingType.generics().isEmpty() ? containingType : null;
+    }
+    Environment environment = protoclass().environment();
+    for (Protoclass p : environment.protoclassesFrom(Collections.singleton(containedTypeElement))) {
+      if (p.kind().isDefinedValue()
+          && canAccessImplementation(p)
+          && p.constitution().generics().isEmpty()) {
+        return environment.composeValue(p);
+      }
+      break;
+    }
+    return null;
+  }
+
   private boolean canAccessImplementation(Protoclass p) {
     return p.constitution().implementationVisibility().isPublic()
         || (!p.constitution().implementationVisibility().isPrivate()
@@ -44,6 +44,10 @@ public abstract class ValueImmutableInfo implements ValueMirrors.Immutable {
   @Override
   public abstract boolean intern();
 
+  @Value.Parameter
+  @Override
+  public abstract boolean lazyhash();
+
   @Value.Parameter
   @Override
   public abstract boolean prehash();
@@ -35,6 +35,8 @@ public final class ValueMirrors {
 
     boolean prehash() default false;
 
+    boolean lazyhash() default false;
+
     boolean builder() default true;
   }
 
@@ -231,6 +233,34 @@ public final class ValueMirrors {
 
     String nullableAnnotation() default "Nullable";
 
+    InternerKind interner() default InternerKind.STRONG;
+
+    int internerConcurrency() default 0;
+
+    int internerMaximumSize() default 10000;
+
+    boolean internerStats() default false;
+
+    boolean lockFreeLazy() default false;
+
+    boolean primitiveLists() default false;
+
+    boolean packedAttributes() default false;
+
+    boolean persistentCollections() default false;
+
+    boolean batchMutator() default false;
+
+    boolean transferBuilderBuffers() default false;
+
+    boolean expectedSizeHints() default false;
+
+    boolean toStringAppendTo() default false;
+
+    boolean columnarBatch() default false;
+
+    boolean offHeapFlyweight() default false;
+
     public enum ImplementationVisibility {
       PUBLIC,
       SAME,
@@ -245,6 +275,12 @@ public final class ValueMirrors {
       PACKAGE
     }
 
+    public enum InternerKind {
+      STRONG,
+      WEAK,
+      BOUNDED
+    }
+
     public enum ValidationMethod {
       NONE,
       SIMPLE,
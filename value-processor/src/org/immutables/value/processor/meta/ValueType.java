@@ -33,6 +33,7 @@ import java.lang.annotation.ElementType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -56,6 +57,7 @@ import org.immutables.generator.SourceExtraction;
 import org.immutables.generator.TypeHierarchyCollector;
 import org.immutables.value.processor.encode.TypeExtractor;
 import org.immutables.value.processor.meta.Constitution.AppliedNameForms;
+import org.immutables.value.processor.meta.LongBits.LongPositions;
 import org.immutables.value.processor.meta.Constitution.InnerBuilderDefinition;
 import org.immutables.value.processor.meta.Constitution.NameForms;
 import org.immutables.value.processor.meta.Proto.DeclaringType;
@@ -63,6 +65,7 @@ import org.immutables.value.processor.meta.Proto.Environment;
 import org.immutables.value.processor.meta.Proto.JacksonMode;
 import org.immutables.value.processor.meta.Proto.Protoclass;
 import org.immutables.value.processor.meta.Styles.UsingName.TypeNames;
+import org.immutables.value.processor.meta.ValueMirrors.Style.InternerKind;
 
 /**
  * It's pointless to refactor this mess until
@@ -528,6 +531,101 @@ public final class ValueType extends TypeIntrospectionBase {
                 && !constitution.isImplementationHidden()));
   }
 
+  public boolean isGenerateAppendTo() {
+    return constitution.style().toStringAppendTo()
+        && !isToStringDefined;
+  }
+
+  public boolean isGenerateColumnarBatch() {
+    if (!constitution.style().columnarBatch()
+        || !generics().isEmpty()
+        || !isUseCopyMethods()
+        || constitution.isImplementationHidden()) {
+      return false;
+    }
+    for (ValueAttribute a : getImplementedAttributes()) {
+      if (a.isEncoding()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isGenerateOffHeapFlyweight() {
+    if (!constitution.style().offHeapFlyweight()
+        || !generics().isEmpty()
+        || !isUseCopyMethods()
+        || isAnnotationType()
+        || constitution.isImplementationHidden()
+        || getOffHeapAttributes().isEmpty()) {
+      return false;
+    }
+    for (ValueAttribute a : getOffHeapAttributes()) {
+      if (a.getOffHeapWidth() == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private @Nullable List<ValueAttribute> offHeapAttributes;
+  private int offHeapSize;
+
+  /**
+   * Stored attributes in the order of the off-heap layout. Wider attributes go first, so that
+   * values are naturally aligned if the layout starts at aligned offset.
+   * @return attributes with assigned offsets
+   */
+  public List<ValueAttribute> getOffHeapAttributes() {
+    if (offHeapAttributes == null) {
+      List<ValueAttribute> attributes = new ArrayList<>();
+      for (ValueAttribute a : getImplementedAttributes()) {
+        if (!a.isGenerateDerived) {
+          attributes.add(a);
+        }
+      }
+      offHeapAttributes = Ordering.natural()
+          .onResultOf(ToOffHeapWidth.FUNCTION)
+          .reverse()
+          .sortedCopy(attributes);
+      int offset = 0;
+      for (ValueAttribute a : offHeapAttributes) {
+        a.assignOffHeapOffset(offset);
+        offset += a.getOffHeapWidth();
+      }
+      offHeapSize = offset;
+    }
+    return offHeapAttributes;
+  }
+
+  public int getOffHeapSize() {
+    getOffHeapAttributes();
+    return offHeapSize;
+  }
+
+  public boolean isGenerateBinaryCodec() {
+    return constitution.protoclass().isBinaryCodec()
+        && generics().isEmpty()
+        && isUseBuilder()
+        && getTelescopicBuild() == null
+        && !isAnnotationType()
+        && !constitution.isImplementationHidden();
+  }
+
+  public boolean isUseMutator() {
+    if (!constitution.style().batchMutator()
+        || !isUseCopyMethods()
+        || constitution.isImplementationHidden()) {
+      return false;
+    }
+    for (ValueAttribute a : getImplementedAttributes()) {
+      if (a.isEncoding()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public boolean isUseCopyConstructor() {
     return immutableFeatures.copy()
         && (isUseConstructor() || isUseBuilder());
@@ -551,6 +649,53 @@ public final class ValueType extends TypeIntrospectionBase {
         && !isGeneratePrivateNoargConstructor();
   }
 
+  public boolean isUseCachedHash() {
+    return immutableFeatures.lazyhash()
+        && !isUsePrehashed();
+  }
+
+  public boolean isUseWeakInterner() {
+    return isUseInterned()
+        && constitution.style().interner() == InternerKind.WEAK;
+  }
+
+  public boolean isUseBoundedInterner() {
+    return isUseInterned()
+        && constitution.style().interner() == InternerKind.BOUNDED;
+  }
+
+  /**
+   * Strong interner is implemented as concurrent map instead of Guava's interner when we need
+   * control over concurrency level or need to report size.
+   */
+  public boolean isUseStrongInternerMap() {
+    return isUseInterned()
+        && constitution.style().interner() == InternerKind.STRONG
+        && (isGenerateJdkOnly()
+            || constitution.style().internerConcurrency() > 0
+            || constitution.style().internerStats());
+  }
+
+  public boolean isUseInternerStats() {
+    return isUseInterned() && constitution.style().internerStats();
+  }
+
+  public boolean isUseLockFreeLazy() {
+    return constitution.style().lockFreeLazy();
+  }
+
+  public boolean isUseInternerConcurrency() {
+    return constitution.style().internerConcurrency() > 0;
+  }
+
+  public int getInternerConcurrency() {
+    return constitution.style().internerConcurrency();
+  }
+
+  public int getInternerMaximumSize() {
+    return constitution.style().internerMaximumSize();
+  }
+
   public InnerBuilderDefinition getInnerBuilder() {
     return constitution.innerBuilder();
   }
@@ -582,7 +727,7 @@ public final class ValueType extends TypeIntrospectionBase {
     if (isAnnotationType()) {
       return false;
     }
-    return isUseInterned()
+    return (isUseInterned() && !isUseBoundedInterner())
         || isUseSingletonOnly()
         || useAttributelessSingleton()
         || isGenerateOrdinalValue();
@@ -743,6 +888,24 @@ public final class ValueType extends TypeIntrospectionBase {
     }
   }
 
+  private enum ToOffHeapWidth implements Function<ValueAttribute, Integer> {
+    FUNCTION;
+
+    @Override
+    public Integer apply(ValueAttribute input) {
+      return input.getOffHeapWidth();
+    }
+  }
+
+  private enum ToEqualityCost implements Function<ValueAttribute, Integer> {
+    FUNCTION;
+
+    @Override
+    public Integer apply(ValueAttribute input) {
+      return input.getEqualityCost();
+    }
+  }
+
   private enum ToConstructorArgumentOrder implements Function<ValueAttribute, Integer> {
     FUNCTION;
 
@@ -868,6 +1031,24 @@ public final class ValueType extends TypeIntrospectionBase {
     return builder.build();
   }
 
+  /**
+   * Mandatory unmarshaled attributes, which could be read only by a single name, so that
+   * the presence of such property is required for the successful unmarshaling from JSON object.
+   * @return required attributes or empty list if value is not read from JSON object
+   */
+  public List<ValueAttribute> getUnmarshaledRequiredAttributes() {
+    if (isUseConstructorOnly() || isUseSingletonOnly()) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<ValueAttribute> builder = ImmutableList.builder();
+    for (ValueAttribute attribute : getUnmarshaledAttributes()) {
+      if (attribute.isMandatory() && attribute.getAlternateSerializedNames().length == 0) {
+        builder.add(attribute);
+      }
+    }
+    return builder.build();
+  }
+
   @Nullable
   private ImmutableList<ValueAttribute> allMarshalingAttributes;
   private TypeHierarchyCollector hierarchiCollector;
@@ -973,12 +1154,76 @@ public final class ValueType extends TypeIntrospectionBase {
     return implementedAttributes;
   }
 
+  private @Nullable List<ValueAttribute> packedAttributes;
+
+  /**
+   * Attributes stored as bits in packed long fields rather than in individual fields.
+   * @return packed attributes
+   */
+  public List<ValueAttribute> getPackedAttributes() {
+    if (packedAttributes == null) {
+      packedAttributes = constitution.style().packedAttributes()
+          && !isAnnotationType()
+          && !isUseSingleton()
+          ? FluentIterable.from(getImplementedAttributes())
+              .filter(new Predicate<ValueAttribute>() {
+                @Override
+                public boolean apply(ValueAttribute input) {
+                  return input.isPackable();
+                }
+              })
+              .toList()
+          : ImmutableList.<ValueAttribute>of();
+    }
+    return packedAttributes;
+  }
+
+  private @Nullable LongPositions packedPositions;
+
+  public LongPositions getPackedPositions() {
+    if (packedPositions == null) {
+      packedPositions = new LongBits().forWidths(getPackedAttributes(), new Function<Object, Integer>() {
+        @Override
+        public Integer apply(Object input) {
+          return ((ValueAttribute) input).getPackedWidth();
+        }
+      });
+    }
+    return packedPositions;
+  }
+
   public List<ValueAttribute> getEquivalenceAttributes() {
     return FluentIterable.from(getImplementedAttributes())
         .filter(NonAuxiliary.PREDICATE)
         .toList();
   }
 
+  /**
+   * Equivalence attributes which are not packed, ordered by estimated cost of comparison, so that
+   * unequal values are detected by cheap comparisons first. Relative order of the attributes of
+   * the same cost is preserved.
+   * @return attributes in the order of comparison
+   */
+  public List<ValueAttribute> getEqualToAttributes() {
+    List<ValueAttribute> attributes = new ArrayList<>();
+    for (ValueAttribute a : getEquivalenceAttributes()) {
+      if (!a.isPacked()) {
+        attributes.add(a);
+      }
+    }
+    return Ordering.natural().onResultOf(ToEqualityCost.FUNCTION).sortedCopy(attributes);
+  }
+
+  public List<ValueAttribute> getEqualToHashedAttributes() {
+    List<ValueAttribute> attributes = new ArrayList<>();
+    for (ValueAttribute a : getEqualToAttributes()) {
+      if (a.isEqualityHashCheck()) {
+        attributes.add(a);
+      }
+    }
+    return attributes;
+  }
+
   public boolean hasAuxiliaryAttributes() {
     for (ValueAttribute a : getImplementedAttributes()) {
       if (a.isAuxiliary()) {
@@ -1039,6 +1284,73 @@ public final class ValueType extends TypeIntrospectionBase {
     return useCollectionUtility(new HasJdkKind(AttributeTypeKind.SORTED_MAP));
   }
 
+  /**
+   * Kinds of array-backed primitive list utility classes to generate.
+   * @return set of used primitive list kinds
+   */
+  public Set<PrimitiveListKind> getPrimitiveListKinds() {
+    Set<PrimitiveListKind> kinds = EnumSet.noneOf(PrimitiveListKind.class);
+    for (ValueType n : nested) {
+      collectPrimitiveListKinds(n, kinds);
+    }
+    collectPrimitiveListKinds(this, kinds);
+    return kinds;
+  }
+
+  private static void collectPrimitiveListKinds(ValueType type, Set<PrimitiveListKind> kinds) {
+    for (ValueAttribute a : type.getSettableAttributes()) {
+      @Nullable PrimitiveListKind kind = a.getPrimitiveListKind();
+      if (kind != null) {
+        kinds.add(kind);
+      }
+    }
+  }
+
+  private static class HasPersistentCollection implements Predicate<ValueAttribute> {
+    private final String collectionType;
+
+    HasPersistentCollection(String collectionType) {
+      this.collectionType = collectionType;
+    }
+
+    @Override
+    public boolean apply(ValueAttribute attribute) {
+      return attribute.getPersistentCollectionType().equals(collectionType);
+    }
+  }
+
+  public boolean isUsePersistentVector() {
+    return useCollectionUtility(new HasPersistentCollection("PersistentVector"));
+  }
+
+  public boolean isUsePersistentHashSet() {
+    return useCollectionUtility(new HasPersistentCollection("PersistentHashSet"));
+  }
+
+  public boolean isUsePersistentHashMap() {
+    // persistent hash set is backed by persistent hash map
+    return isUsePersistentHashSet()
+        || useCollectionUtility(new HasPersistentCollection("PersistentHashMap"));
+  }
+
+  public boolean isGenerateBuilderBufferTransfer() {
+    for (ValueAttribute a : getSettableAttributes()) {
+      if (a.isBuilderBufferTransfer()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean isUseBuilderBufferTransfer() {
+    return useCollectionUtility(new Predicate<ValueAttribute>() {
+      @Override
+      public boolean apply(ValueAttribute attribute) {
+        return attribute.isBuilderBufferTransfer();
+      }
+    });
+  }
+
   private boolean useCollectionUtility(Predicate<ValueAttribute> predicate) {
     for (ValueType n : nested) {
       if (Iterables.any(n.getSettableAttributes(), predicate)) {
@@ -110,6 +110,17 @@ public @interface Value {
      */
     boolean prehash() default false;
 
+    /**
+     * If {@code lazyhash=true} then {@code hashCode} will be computed on the first call and cached
+     * in a non-volatile field, in the same way as {@link String#hashCode()} does. Unlike
+     * {@link #prehash()}, no hashing is done on construction, so values which are never hashed do
+     * not pay for it, while values used as map keys do not recompute the hash on each lookup.
+     * Cached hash codes are also used to quickly tell unequal instances apart in {@code equals}.
+     * This option is ignored if {@link #prehash()} is enabled.
+     * @return if generate lazily cached hash code
+     */
+    boolean lazyhash() default false;
+
     /**
      * If {@code builder=false}, disables generation of {@code builder()}. Default is
      * {@literal true}.
@@ -1173,6 +1184,164 @@ public @interface Value {
      */
     String nullableAnnotation() default "Nullable";
 
+    /**
+     * Kind of interner used for types with {@link Immutable#intern()} enabled. By default
+     * {@link InternerKind#STRONG} interner is used, which retains every instance ever created.
+     * @see InternerKind
+     * @return interner kind
+     */
+    InternerKind interner() default InternerKind.STRONG;
+
+    /**
+     * Number of independently locked shards of the interner map for types with
+     * {@link Immutable#intern()} enabled. Higher values reduce contention when many threads
+     * construct interned instances concurrently. Zero (the default) means that default
+     * concurrency of the interner implementation is used.
+     * @return interner concurrency level
+     */
+    int internerConcurrency() default 0;
+
+    /**
+     * Maximum number of retained interned instances when {@link #interner()} is
+     * {@link InternerKind#BOUNDED}, ignored otherwise.
+     * @return maximum interner size
+     */
+    int internerMaximumSize() default 10000;
+
+    /**
+     * When enabled, types with {@link Immutable#intern()} will have static {@code internerSize()},
+     * {@code internerHitCount()} and {@code internerMissCount()} methods generated to expose
+     * current number of interned instances and counters of interning hits and misses.
+     * Disabled by default as counting adds overhead to each construction.
+     * @return {@code true} if generate interner statistics
+     */
+    boolean internerStats() default false;
+
+    /**
+     * When enabled, {@link Lazy} attributes are initialized without locking. Instead of
+     * double-checked locking on the instance monitor, the value is computed by any thread which
+     * finds it uninitialized, stored to a volatile field and marked as initialized by an atomic
+     * compare-and-set on the initialization bitmap. Readers never block, and generated code never
+     * synchronizes on the instance, but the lazy computation may run more than once under
+     * contention, so use it only for idempotent computations, without side effects. Disabled by
+     * default.
+     * @return {@code true} if lazy attributes are initialized without locking
+     */
+    boolean lockFreeLazy() default false;
+
+    /**
+     * When enabled, list attributes with {@code Integer}, {@code Long} or {@code Double} elements,
+     * like {@code List<Integer>}, are stored in generated immutable objects as primitive arrays
+     * behind read-only {@link java.util.List} views, so elements are boxed only on access.
+     * Builders accumulate elements in primitive arrays as well, and {@code equals} and
+     * {@code hashCode} are computed over the arrays without boxing. Not applied to attributes
+     * declared as Guava immutable collections, nullable attributes or lists which allow null
+     * elements. Disabled by default.
+     * @return {@code true} if store lists of boxed primitives as primitive arrays
+     */
+    boolean primitiveLists() default false;
+
+    /**
+     * When enabled, {@code boolean} attributes and attributes of enum types with no more than 16
+     * constants are stored in generated immutable objects as bits in one or more {@code long}
+     * fields rather than as individual fields. Enum values are stored as ordinals. This reduces
+     * memory footprint of flag-heavy value objects. Accessors and {@code with*} methods unpack
+     * values, while {@code equals} and {@code hashCode} compare and hash the packed words
+     * directly. Applied only to mandatory non-auxiliary attributes: {@link Default},
+     * {@link Derived}, {@link Lazy} and {@link Auxiliary} attributes are stored as usual.
+     * Disabled by default.
+     * @return {@code true} if pack boolean and small enum attributes into bit fields
+     */
+    boolean packedAttributes() default false;
+
+    /**
+     * When enabled, {@link java.util.List}, {@link java.util.Set} and {@link java.util.Map}
+     * attributes are stored in generated immutable objects as persistent data structures with
+     * structural sharing: a bit-partitioned vector trie for lists and a hash array mapped trie
+     * for sets and maps. Additional {@code with*Added(element)} methods for lists and sets and
+     * {@code with*Put(key, value)} methods for maps create a modified copy in O(log n) time,
+     * sharing most of the collection structure with the original object instead of copying the
+     * whole collection. Sets and maps stored this way iterate in hash order rather than in
+     * insertion order. Not applied to sorted and enum collections, attributes declared as Guava
+     * immutable collections, nullable attributes or collections which allow null elements.
+     * Disabled by default.
+     * @return {@code true} if store collections as persistent data structures
+     */
+    boolean persistentCollections() default false;
+
+    /**
+     * When enabled, generated immutable objects get a {@code mutate()} method, which returns a
+     * mutator initialized with attribute values of the instance. Setters of the mutator collect
+     * changes to many attributes and {@code apply()} constructs exactly one new instance, so
+     * validation, hash computation and interning run once instead of once per chained
+     * {@code with*} call. Unchanged attributes, including collections, are carried over by
+     * reference without copying. Mutator is not generated for types using custom encodings or
+     * having hidden implementation. Disabled by default.
+     * @return {@code true} if generate batch mutator
+     */
+    boolean batchMutator() default false;
+
+    /**
+     * When enabled, builders generated in {@link #jdkOnly()} mode hand over their internal
+     * {@code ArrayList} buffers of list attributes to the built immutable instance instead of
+     * copying them. The builder then copies its buffers only if it is modified after
+     * {@code build()}, so built instances are never affected by later builder use. Built lists may
+     * retain some unused capacity of the builder buffer. Builders using Guava immutable collection
+     * builders are not affected, as those already avoid copying on build. Disabled by default.
+     * @return {@code true} if transfer builder buffers to built instances
+     */
+    boolean transferBuilderBuffers() default false;
+
+    /**
+     * When enabled, generated builders get {@code expected*Size(int)} methods for collection and
+     * map attributes. The methods take the expected number of elements and allocate builder
+     * storage for all of them at once, so large collections do not grow by repeated copying
+     * and rehashing. Builder {@code from(instance)} methods pass sizes of source collections as
+     * such hints automatically. Applies to collections accumulated in JDK
+     * {@code ArrayList} and {@code LinkedHashMap}, as in {@link #jdkOnly()} mode, and to
+     * {@link #primitiveLists()}. Guava immutable collection builders cannot be presized and are
+     * not affected. Disabled by default.
+     * @return {@code true} if generate expected size hints for builders
+     */
+    boolean expectedSizeHints() default false;
+
+    /**
+     * When enabled, generated immutable objects get an {@code appendTo(StringBuilder)} method, which
+     * appends the same string representation as {@code toString()} to a caller-provided buffer,
+     * and {@code toString()} is implemented on top of it. Nested generated values, including
+     * elements of lists, sets and optionals, are appended recursively via their own
+     * {@code appendTo} methods if those are generated too, so no intermediate strings are created
+     * for them. {@link Redacted} attributes are masked or omitted the same way as in
+     * {@code toString()}. Not applied if {@code toString()} is defined in abstract value type.
+     * Disabled by default.
+     * @return {@code true} if generate {@code appendTo} method
+     */
+    boolean toStringAppendTo() default false;
+
+    /**
+     * When enabled, a nested {@code Batch} class is generated inside the immutable implementation.
+     * A batch stores many values column by column: each attribute gets its own array, and
+     * primitive attributes use primitive arrays. Attribute values are read by row index, either
+     * from the batch directly or through a reusable flyweight {@code Cursor}, so scanning a batch
+     * does not allocate an object per row. Instances are created only on request. Generation
+     * applies only to non-generic types with copy methods and no custom encodings.
+     * Disabled by default.
+     * @return {@code true} if generate columnar batch class
+     */
+    boolean columnarBatch() default false;
+
+    /**
+     * When enabled, types whose attributes are all primitives or enums get a nested
+     * {@code Flyweight} class inside the immutable implementation, and values use a fixed binary
+     * layout. A flyweight implements the abstract value type and reads attribute values directly
+     * from a {@link java.nio.ByteBuffer} at an offset, for example from a memory-mapped file, so
+     * values need not be copied to the heap. A static {@code write} method encodes any instance
+     * into the same layout. Derived attributes are not stored, they are computed from the stored
+     * ones. Disabled by default.
+     * @return {@code true} if generate off-heap flyweight
+     */
+    boolean offHeapFlyweight() default false;
+
     /**
      * When enabled: immutable attributes with discoverable builders receive the additional
      * builder API:
@@ -1315,6 +1484,29 @@ public @interface Value {
       PACKAGE
     }
 
+    /**
+     * Kinds of interners for {@link Immutable#intern() interned} types.
+     * @see Style#interner()
+     */
+    public enum InternerKind {
+      /**
+       * Instances are strongly retained, once interned, instance is never released.
+       */
+      STRONG,
+      /**
+       * Instances are weakly retained, so that interned instances which are no longer in use could
+       * be garbage collected. Equality is still implemented as reference equality.
+       */
+      WEAK,
+      /**
+       * At most {@link Style#internerMaximumSize()} instances are retained, least recently used
+       * instances are evicted. As evicted instances may still be in use, duplicate equal
+       * instances may exist, so equality is not implemented as reference equality, but interning
+       * still deduplicates most of instances.
+       */
+      BOUNDED
+    }
+
     public enum ValidationMethod {
       /**
        * Disables null and mandatory attribute checks. Any missing primitives will be initialized to